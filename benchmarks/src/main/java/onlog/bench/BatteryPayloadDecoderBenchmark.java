@@ -0,0 +1,66 @@
+package onlog.bench;
+
+import onlog.streams.parser.BatteryPayloadDecoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BatteryPayloadDecoder 비교 (-prof gc 로 alloc/op 같이 볼 것)
+ *
+ * - optional : 기존 decode(String) → byte[] + Optional + Decoded (기준)
+ * - sink     : decode(String, T, Sink) → 앞 8글자만 디코딩, 할당 없음
+ * - invalid  : base64 오류 문자열 (기존 = IllegalArgumentException 생성)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BatteryPayloadDecoderBenchmark {
+
+    private String data;
+    private String invalid;
+
+    // sink 결과를 Blackhole로 넘기는 상수 sink
+    private static final BatteryPayloadDecoder.Sink<Blackhole> SINK =
+            (bh, batteryMv, batteryStatus, temperature, humidity) -> {
+                bh.consume(batteryMv);
+                bh.consume(batteryStatus);
+                bh.consume(temperature);
+                bh.consume(humidity);
+            };
+
+    @Setup
+    public void setup() {
+        data = "DMcJ5QKn";
+        invalid = "DMcJ5Q*n";
+    }
+
+    @Benchmark
+    public void optional(Blackhole bh) {
+        BatteryPayloadDecoder.decode(data).ifPresent(d -> {
+            bh.consume(d.batteryMv());
+            bh.consume(d.batteryStatus());
+            bh.consume(d.temperature());
+            bh.consume(d.humidity());
+        });
+    }
+
+    @Benchmark
+    public boolean sink(Blackhole bh) {
+        return BatteryPayloadDecoder.decode(data, bh, SINK);
+    }
+
+    @Benchmark
+    public boolean optionalInvalid() {
+        return BatteryPayloadDecoder.decode(invalid).isPresent();
+    }
+
+    @Benchmark
+    public boolean sinkInvalid(Blackhole bh) {
+        return BatteryPayloadDecoder.decode(invalid, bh, SINK);
+    }
+}
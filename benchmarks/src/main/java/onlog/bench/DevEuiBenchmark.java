@@ -0,0 +1,122 @@
+package onlog.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import sqlite.DevEuiScanner;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * RawLogRepository devEui 추출 비교
+ *
+ * - regex   : 기존 DEV_EUI_PATTERN (기준)
+ * - scanner : DevEuiScanner 1-pass
+ * - column  : raw_logs.dev_eui 컬럼 직접 읽기 vs payload 읽고 scanner (SQLite 포함, 1000 rows)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DevEuiBenchmark {
+
+    private static final Pattern DEV_EUI_PATTERN =
+            Pattern.compile("\"devEui\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static final int ROWS = 1_000;
+
+    private String payload;
+
+    private Path dbFile;
+    private Connection conn;
+    private PreparedStatement selectColumn;
+    private PreparedStatement selectPayload;
+
+    @Setup
+    public void setup() throws Exception {
+        payload = Payloads.chirpstackUplink("a840414f81860f3c", 18234, "DMcJ5QKn");
+
+        dbFile = Files.createTempFile("deveui-bench", ".sqlite");
+        conn = DriverManager.getConnection("jdbc:sqlite:" + dbFile);
+
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE raw_logs (id INTEGER PRIMARY KEY, payload TEXT, dev_eui TEXT)");
+        }
+
+        conn.setAutoCommit(false);
+        try (PreparedStatement ps =
+                     conn.prepareStatement("INSERT INTO raw_logs (payload, dev_eui) VALUES (?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                String devEui = String.format("a840414f8186%04x", i % 64);
+                ps.setString(1, Payloads.chirpstackUplink(devEui, i, "DMcJ5QKn"));
+                ps.setString(2, devEui);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        conn.commit();
+
+        selectColumn  = conn.prepareStatement("SELECT dev_eui FROM raw_logs");
+        selectPayload = conn.prepareStatement("SELECT payload FROM raw_logs");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        conn.close();
+        Files.deleteIfExists(dbFile);
+    }
+
+    // =========================
+    // In-memory (per payload)
+    // =========================
+    @Benchmark
+    public String regex() {
+        Matcher m = DEV_EUI_PATTERN.matcher(payload);
+        return m.find() ? m.group(1) : null;
+    }
+
+    @Benchmark
+    public String scanner() {
+        return DevEuiScanner.scan(payload);
+    }
+
+    // =========================
+    // SQLite (per 1000 rows)
+    // =========================
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void sqlitePayloadRegex(Blackhole bh) throws Exception {
+        try (ResultSet rs = selectPayload.executeQuery()) {
+            while (rs.next()) {
+                Matcher m = DEV_EUI_PATTERN.matcher(rs.getString(1));
+                bh.consume(m.find() ? m.group(1) : null);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void sqlitePayloadScanner(Blackhole bh) throws Exception {
+        try (ResultSet rs = selectPayload.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(DevEuiScanner.scan(rs.getString(1)));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void sqliteColumn(Blackhole bh) throws Exception {
+        try (ResultSet rs = selectColumn.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(rs.getString(1));
+            }
+        }
+    }
+}
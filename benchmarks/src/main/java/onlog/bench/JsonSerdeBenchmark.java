@@ -0,0 +1,129 @@
+package onlog.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import onlog.common.model.CanonicalEvent;
+import onlog.common.model.KpiEvent;
+import onlog.common.serde.JsonSerde;
+import onlog.streams.kpi.YieldAggregator;
+import onlog.streams.parser.ParseErrorEvent;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonSerde 비교 (model class별, -prof gc 로 alloc/op 같이 볼 것)
+ *
+ * - legacy : serde마다 new ObjectMapper() + writeValueAsBytes / readValue(bytes, Class) (기준)
+ *            (Instant 때문에 JavaTimeModule + ISO 문자열만 맞춤)
+ * - serde  : JsonSerde (공용 mapper + Blackbird, 캐시된 reader / writer, thread별 출력 버퍼)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonSerdeBenchmark {
+
+    @Param({"KpiEvent", "ParseErrorEvent", "YieldCount", "CanonicalEvent"})
+    public String model;
+
+    private Class<Object> type;
+    private Object value;
+    private byte[] bytes;
+
+    private ObjectMapper legacyMapper;
+
+    private Serializer<Object> serializer;
+    private Deserializer<Object> deserializer;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        value = sample(model);
+        type = (Class<Object>) value.getClass();
+
+        legacyMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        JsonSerde<Object> serde = new JsonSerde<>(type);
+        serializer = serde.serializer();
+        deserializer = serde.deserializer();
+
+        bytes = serializer.serialize("bench", value);
+    }
+
+    @Benchmark
+    public byte[] legacySerialize() throws Exception {
+        return legacyMapper.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] serdeSerialize() {
+        return serializer.serialize("bench", value);
+    }
+
+    @Benchmark
+    public Object legacyDeserialize() throws Exception {
+        return legacyMapper.readValue(bytes, type);
+    }
+
+    @Benchmark
+    public Object serdeDeserialize() {
+        return deserializer.deserialize("bench", bytes);
+    }
+
+    private static Object sample(String model) {
+        Instant ts = Instant.parse("2024-05-01T09:00:00.123Z");
+
+        switch (model) {
+            case "KpiEvent":
+                return KpiEvent.production(ts, "F01|L01", 18234.5);
+
+            case "ParseErrorEvent": {
+                ParseErrorEvent e = new ParseErrorEvent();
+                e.reason = "PARSE_FAILED";
+                e.raw = Payloads.chirpstackUplink("a840414f81860f3c", 18234, "DMcJ5QKn");
+                e.occurredAt = ts;
+                return e;
+            }
+
+            case "YieldCount": {
+                YieldAggregator.YieldCount c = new YieldAggregator.YieldCount();
+                c.ok = 9_812;
+                c.no = 188;
+                return c;
+            }
+
+            case "CanonicalEvent": {
+                CanonicalEvent e = new CanonicalEvent();
+                e.eventTime = ts;
+                e.edgeIngestTime = ts.plusMillis(40);
+                e.tenantId = "F01";
+                e.lineId = "L01";
+                e.process = "ENV";
+                e.devEui = "a840414f81860f3c";
+                e.deviceType = "ENV_SENSOR";
+                e.metric = "TEMP";
+                e.deviceName = "env-01";
+                e.valueNum = 24.04;
+                e.fCnt = 18234;
+                e.batteryMv = 3600;
+                e.batteryStatus = "GOOD";
+                e.temperature = 24.04;
+                e.humidity = 50.1;
+                e.sourceId = "F01.L01.ENV.ENV_SENSOR.TEMP";
+                return e;
+            }
+
+            default:
+                throw new IllegalArgumentException(model);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package onlog.bench;
+
+/**
+ * Benchmark용 edge payload 샘플 (ChirpStack v4 uplink 형태)
+ */
+public final class Payloads {
+
+    /**
+     * ENV 센서 uplink (~1.3KB)
+     * devEui는 deviceInfo 안쪽, rxInfo 앞에 위치
+     */
+    public static String chirpstackUplink(String devEui, int fCnt, String data) {
+        return """
+            {"deduplicationId":"3ac7e3c4-4401-4b8d-9386-a5c902f9202d",\
+            "time":"2025-01-15T03:12:45.123456+00:00",\
+            "deviceInfo":{"tenantId":"52f14cd4-c6f1-4fbd-8f87-4025e1d49242",\
+            "tenantName":"OnLog","applicationId":"17c82e96-be03-4f38-aef3-f83d48582d97",\
+            "applicationName":"factory-env","deviceProfileId":"14855bf7-d10d-4aee-b618-ebfcb64dc7ad",\
+            "deviceProfileName":"EM300-TH","deviceName":"F01-L01-ENV-03",\
+            "devEui":"%s","deviceClassEnabled":"CLASS_A",\
+            "tags":{"line":"L01","process":"ENV"}},\
+            "devAddr":"01fe2a9c","adr":true,"dr":5,"fCnt":%d,"fPort":85,"confirmed":false,\
+            "data":"%s",\
+            "rxInfo":[{"gatewayId":"24e124fffef4ad2c","uplinkId":1843,\
+            "gwTime":"2025-01-15T03:12:45.123456+00:00","nsTime":"2025-01-15T03:12:45.131876+00:00",\
+            "rssi":-71,"snr":9.5,"channel":2,"rfChain":1,"location":{},"context":"2Q3TbA==",\
+            "metadata":{"region_common_name":"KR920","region_config_id":"kr920"},"crcStatus":"CRC_OK"},\
+            {"gatewayId":"24e124fffef4ad2d","uplinkId":3391,\
+            "gwTime":"2025-01-15T03:12:45.124001+00:00","nsTime":"2025-01-15T03:12:45.132990+00:00",\
+            "rssi":-88,"snr":4.25,"channel":2,"rfChain":1,"location":{},"context":"8Rk1Ow==",\
+            "metadata":{"region_common_name":"KR920","region_config_id":"kr920"},"crcStatus":"CRC_OK"}],\
+            "txInfo":{"frequency":922500000,"modulation":{"lora":{"bandwidth":125000,\
+            "spreadingFactor":7,"codeRate":"CR_4_5"}}}}"""
+            .formatted(devEui, fCnt, data);
+    }
+
+    private Payloads() {}
+}
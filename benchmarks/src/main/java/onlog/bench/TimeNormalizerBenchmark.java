@@ -0,0 +1,74 @@
+package onlog.bench;
+
+import onlog.common.time.TimeNormalizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ISO-8601 파싱 비교 (-prof gc 로 alloc/op 같이 볼 것)
+ *
+ * - instantParse   : 기존 Instant.parse (기준)
+ * - parseIso       : fast path → Instant (Instant 1개만 할당)
+ * - parseIsoMillis : fast path → epoch millis (할당 없음)
+ *
+ * 입력 shape
+ * - utcMillis : envelope received_at (Instant.toString, ms 단위) → 37ms 간격, 같은 초 prefix 반복
+ * - utcNanos  : ChirpStack time (ns 단위)
+ * - offset    : +09:00 offset
+ * - newDay    : 매번 다른 날 → prefix 캐시 miss (worst case)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TimeNormalizerBenchmark {
+
+    private static final int SIZE = 1024;
+
+    @Param({"utcMillis", "utcNanos", "offset", "newDay"})
+    public String shape;
+
+    private String[] values;
+    private int i;
+
+    @Setup
+    public void setup() {
+        values = new String[SIZE];
+
+        Instant t = Instant.parse("2024-05-01T09:00:00.123Z");
+        for (int n = 0; n < SIZE; n++) {
+            values[n] = switch (shape) {
+                case "utcMillis" -> t.plusMillis(37L * n).toString();
+                case "utcNanos"  -> t.plusNanos(37_123_457L * n).toString();
+                case "offset"    -> OffsetDateTime.ofInstant(t.plusMillis(37L * n), ZoneOffset.ofHours(9)).toString();
+                case "newDay"    -> t.plusSeconds(86_400L * n + n).toString();
+                default -> throw new IllegalArgumentException(shape);
+            };
+        }
+    }
+
+    private String next() {
+        return values[i++ & (SIZE - 1)];
+    }
+
+    @Benchmark
+    public Instant instantParse() {
+        return Instant.parse(next());
+    }
+
+    @Benchmark
+    public Instant parseIso() {
+        return TimeNormalizer.parseIso(next());
+    }
+
+    @Benchmark
+    public long parseIsoMillis() {
+        return TimeNormalizer.parseIsoMillis(next());
+    }
+}
@@ -0,0 +1,305 @@
+package onlog.common.serde;
+
+import onlog.common.model.CanonicalEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * CanonicalEvent binary format (sensor.parsed)
+ *
+ * [version 1B][null bitmap 4B][값이 있는 field만 순서대로]
+ *
+ * - Instant : epoch millis int64 (ms 미만은 버림)
+ * - String  : varint 길이 + UTF-8
+ * - Double  : IEEE754 int64 / Integer : int32 / Boolean : 1B
+ * - 모두 big-endian
+ *
+ * field 순서 = FIELD_* 번호 (추가는 끝에만, 바꾸면 VERSION 올릴 것)
+ * 첫 byte가 JSON('{')과 겹치지 않아서 header 없이도 구분 가능
+ */
+public final class CanonicalEventCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final int FIELD_EVENT_TIME       = 0;
+    private static final int FIELD_EDGE_INGEST_TIME = 1;
+    private static final int FIELD_TENANT_ID        = 2;
+    private static final int FIELD_LINE_ID          = 3;
+    private static final int FIELD_PROCESS          = 4;
+    private static final int FIELD_DEV_EUI          = 5;
+    private static final int FIELD_DEVICE_TYPE      = 6;
+    private static final int FIELD_METRIC           = 7;
+    private static final int FIELD_DEVICE_NAME      = 8;
+    private static final int FIELD_VALUE_NUM        = 9;
+    private static final int FIELD_VALUE_BOOL       = 10;
+    private static final int FIELD_FCNT             = 11;
+    private static final int FIELD_BATTERY_MV       = 12;
+    private static final int FIELD_BATTERY_STATUS   = 13;
+    private static final int FIELD_TEMPERATURE      = 14;
+    private static final int FIELD_HUMIDITY         = 15;
+    private static final int FIELD_SOURCE_ID        = 16;
+
+    private static final int HEADER_SIZE = 1 + 4;
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == VERSION;
+    }
+
+    // ==================================================
+    // Encode (크기 먼저 계산 → 배열 1개만 할당)
+    // ==================================================
+    public static byte[] encode(CanonicalEvent e) {
+        byte[] b = new byte[sizeOf(e)];
+
+        int bitmap = 0;
+        if (e.eventTime != null)      bitmap |= 1 << FIELD_EVENT_TIME;
+        if (e.edgeIngestTime != null) bitmap |= 1 << FIELD_EDGE_INGEST_TIME;
+        if (e.tenantId != null)       bitmap |= 1 << FIELD_TENANT_ID;
+        if (e.lineId != null)         bitmap |= 1 << FIELD_LINE_ID;
+        if (e.process != null)        bitmap |= 1 << FIELD_PROCESS;
+        if (e.devEui != null)         bitmap |= 1 << FIELD_DEV_EUI;
+        if (e.deviceType != null)     bitmap |= 1 << FIELD_DEVICE_TYPE;
+        if (e.metric != null)         bitmap |= 1 << FIELD_METRIC;
+        if (e.deviceName != null)     bitmap |= 1 << FIELD_DEVICE_NAME;
+        if (e.valueNum != null)       bitmap |= 1 << FIELD_VALUE_NUM;
+        if (e.valueBool != null)      bitmap |= 1 << FIELD_VALUE_BOOL;
+        if (e.fCnt != null)           bitmap |= 1 << FIELD_FCNT;
+        if (e.batteryMv != null)      bitmap |= 1 << FIELD_BATTERY_MV;
+        if (e.batteryStatus != null)  bitmap |= 1 << FIELD_BATTERY_STATUS;
+        if (e.temperature != null)    bitmap |= 1 << FIELD_TEMPERATURE;
+        if (e.humidity != null)       bitmap |= 1 << FIELD_HUMIDITY;
+        if (e.sourceId != null)       bitmap |= 1 << FIELD_SOURCE_ID;
+
+        b[0] = VERSION;
+        int p = putInt(b, 1, bitmap);
+
+        if (e.eventTime != null)      p = putLong(b, p, e.eventTime.toEpochMilli());
+        if (e.edgeIngestTime != null) p = putLong(b, p, e.edgeIngestTime.toEpochMilli());
+        if (e.tenantId != null)       p = putString(b, p, e.tenantId);
+        if (e.lineId != null)         p = putString(b, p, e.lineId);
+        if (e.process != null)        p = putString(b, p, e.process);
+        if (e.devEui != null)         p = putString(b, p, e.devEui);
+        if (e.deviceType != null)     p = putString(b, p, e.deviceType);
+        if (e.metric != null)         p = putString(b, p, e.metric);
+        if (e.deviceName != null)     p = putString(b, p, e.deviceName);
+        if (e.valueNum != null)       p = putLong(b, p, Double.doubleToRawLongBits(e.valueNum));
+        if (e.valueBool != null)      b[p++] = (byte) (e.valueBool ? 1 : 0);
+        if (e.fCnt != null)           p = putInt(b, p, e.fCnt);
+        if (e.batteryMv != null)      p = putInt(b, p, e.batteryMv);
+        if (e.batteryStatus != null)  p = putString(b, p, e.batteryStatus);
+        if (e.temperature != null)    p = putLong(b, p, Double.doubleToRawLongBits(e.temperature));
+        if (e.humidity != null)       p = putLong(b, p, Double.doubleToRawLongBits(e.humidity));
+        if (e.sourceId != null)       putString(b, p, e.sourceId);
+
+        return b;
+    }
+
+    private static int sizeOf(CanonicalEvent e) {
+        int n = HEADER_SIZE;
+
+        if (e.eventTime != null)      n += 8;
+        if (e.edgeIngestTime != null) n += 8;
+        n += stringSize(e.tenantId);
+        n += stringSize(e.lineId);
+        n += stringSize(e.process);
+        n += stringSize(e.devEui);
+        n += stringSize(e.deviceType);
+        n += stringSize(e.metric);
+        n += stringSize(e.deviceName);
+        if (e.valueNum != null)       n += 8;
+        if (e.valueBool != null)      n += 1;
+        if (e.fCnt != null)           n += 4;
+        if (e.batteryMv != null)      n += 4;
+        n += stringSize(e.batteryStatus);
+        if (e.temperature != null)    n += 8;
+        if (e.humidity != null)       n += 8;
+        n += stringSize(e.sourceId);
+
+        return n;
+    }
+
+    // ==================================================
+    // Decode
+    // ==================================================
+    public static CanonicalEvent decode(byte[] b) {
+        if (!isBinary(b) || b.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("not a CanonicalEvent v" + VERSION + " payload");
+        }
+
+        Reader r = new Reader(b, 1);
+        int bitmap = r.int32();
+
+        CanonicalEvent e = new CanonicalEvent();
+
+        if (has(bitmap, FIELD_EVENT_TIME))       e.eventTime = Instant.ofEpochMilli(r.int64());
+        if (has(bitmap, FIELD_EDGE_INGEST_TIME)) e.edgeIngestTime = Instant.ofEpochMilli(r.int64());
+        if (has(bitmap, FIELD_TENANT_ID))        e.tenantId = r.string();
+        if (has(bitmap, FIELD_LINE_ID))          e.lineId = r.string();
+        if (has(bitmap, FIELD_PROCESS))          e.process = r.string();
+        if (has(bitmap, FIELD_DEV_EUI))          e.devEui = r.string();
+        if (has(bitmap, FIELD_DEVICE_TYPE))      e.deviceType = r.string();
+        if (has(bitmap, FIELD_METRIC))           e.metric = r.string();
+        if (has(bitmap, FIELD_DEVICE_NAME))      e.deviceName = r.string();
+        if (has(bitmap, FIELD_VALUE_NUM))        e.valueNum = Double.longBitsToDouble(r.int64());
+        if (has(bitmap, FIELD_VALUE_BOOL))       e.valueBool = r.int8() != 0;
+        if (has(bitmap, FIELD_FCNT))             e.fCnt = r.int32();
+        if (has(bitmap, FIELD_BATTERY_MV))       e.batteryMv = r.int32();
+        if (has(bitmap, FIELD_BATTERY_STATUS))   e.batteryStatus = r.string();
+        if (has(bitmap, FIELD_TEMPERATURE))      e.temperature = Double.longBitsToDouble(r.int64());
+        if (has(bitmap, FIELD_HUMIDITY))         e.humidity = Double.longBitsToDouble(r.int64());
+        if (has(bitmap, FIELD_SOURCE_ID))        e.sourceId = r.string();
+
+        return e;
+    }
+
+    private static boolean has(int bitmap, int field) {
+        return (bitmap & (1 << field)) != 0;
+    }
+
+    /**
+     * 읽기 위치 + 범위 체크 (잘린 payload → IllegalArgumentException)
+     */
+    private static final class Reader {
+        private final byte[] b;
+        private int p;
+
+        Reader(byte[] b, int p) {
+            this.b = b;
+            this.p = p;
+        }
+
+        private int need(int n) {
+            if (n < 0 || p + n > b.length) {
+                throw new IllegalArgumentException("truncated CanonicalEvent payload");
+            }
+            int at = p;
+            p += n;
+            return at;
+        }
+
+        int int8() {
+            return b[need(1)];
+        }
+
+        int int32() {
+            int at = need(4);
+            return ((b[at] & 0xFF) << 24) | ((b[at + 1] & 0xFF) << 16)
+                 | ((b[at + 2] & 0xFF) << 8) | (b[at + 3] & 0xFF);
+        }
+
+        long int64() {
+            return ((long) int32() << 32) | (int32() & 0xFFFFFFFFL);
+        }
+
+        String string() {
+            int len = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (shift > 28) {
+                    throw new IllegalArgumentException("bad string length");
+                }
+                int v = b[need(1)];
+                len |= (v & 0x7F) << shift;
+                if ((v & 0x80) == 0) break;
+            }
+            int at = need(len);
+            return new String(b, at, len, StandardCharsets.UTF_8);
+        }
+    }
+
+    // ==================================================
+    // binary helpers
+    // ==================================================
+    private static int putInt(byte[] b, int p, int v) {
+        b[p]     = (byte) (v >>> 24);
+        b[p + 1] = (byte) (v >>> 16);
+        b[p + 2] = (byte) (v >>> 8);
+        b[p + 3] = (byte) v;
+        return p + 4;
+    }
+
+    private static int putLong(byte[] b, int p, long v) {
+        putInt(b, p, (int) (v >>> 32));
+        return putInt(b, p + 4, (int) v);
+    }
+
+    private static int stringSize(String s) {
+        if (s == null) {
+            return 0;
+        }
+        int len = utf8Length(s);
+        return varintSize(len) + len;
+    }
+
+    private static int putString(byte[] b, int p, String s) {
+        int len = utf8Length(s);
+
+        int v = len;
+        while ((v & ~0x7F) != 0) {
+            b[p++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        b[p++] = (byte) v;
+
+        return putUtf8(b, p, s);
+    }
+
+    private static int varintSize(int v) {
+        int n = 1;
+        while ((v & ~0x7F) != 0) {
+            v >>>= 7;
+            n++;
+        }
+        return n;
+    }
+
+    // String.getBytes(UTF_8)와 같은 결과 (짝 없는 surrogate → '?')
+    private static int utf8Length(String s) {
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                n += 1;
+            } else if (c < 0x800) {
+                n += 2;
+            } else if (Character.isHighSurrogate(c)
+                    && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                n += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                n += 1;
+            } else {
+                n += 3;
+            }
+        }
+        return n;
+    }
+
+    private static int putUtf8(byte[] b, int p, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                b[p++] = (byte) c;
+            } else if (c < 0x800) {
+                b[p++] = (byte) (0xC0 | (c >> 6));
+                b[p++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c)
+                    && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                b[p++] = (byte) (0xF0 | (cp >> 18));
+                b[p++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                b[p++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                b[p++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                b[p++] = (byte) '?';
+            } else {
+                b[p++] = (byte) (0xE0 | (c >> 12));
+                b[p++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                b[p++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return p;
+    }
+
+    private CanonicalEventCodec() {}
+}
@@ -1,10 +1,116 @@
 package onlog.common.serde;
 
 import onlog.common.model.CanonicalEvent;
+import onlog.common.util.SourceIdRegistry;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
 
-public class CanonicalEventSerde extends JsonSerde<CanonicalEvent> {
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * sensor.parsed value serde (JSON / binary 공존)
+ *
+ * - 쓰기: CANONICAL_FORMAT (json | binary, 기본 json) + content-type header
+ * - 읽기: content-type header → 없으면 첫 byte로 판별 (binary = VERSION, JSON = '{')
+ *         identity 문자열은 SourceIdRegistry의 canonical 인스턴스로 교체
+ *
+ * rollout: 읽는 쪽(streams-kpi / ingest) 먼저 배포 → parser CANONICAL_FORMAT=binary
+ */
+public class CanonicalEventSerde implements Serde<CanonicalEvent> {
+
+    public static final String HEADER_CONTENT_TYPE = "onlog-content-type";
+
+    public static final String CONTENT_TYPE_JSON   = "application/json";
+    public static final String CONTENT_TYPE_BINARY = "application/x-onlog-canonical-v" + CanonicalEventCodec.VERSION;
+
+    private static final byte[] JSON_HEADER   = CONTENT_TYPE_JSON.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BINARY_HEADER = CONTENT_TYPE_BINARY.getBytes(StandardCharsets.UTF_8);
+
+    private final JsonSerde<CanonicalEvent> json = new JsonSerde<>(CanonicalEvent.class);
+    private final boolean binary;
 
     public CanonicalEventSerde() {
-        super(CanonicalEvent.class);
+        this("binary".equalsIgnoreCase(System.getenv("CANONICAL_FORMAT")));
+    }
+
+    public CanonicalEventSerde(boolean binary) {
+        this.binary = binary;
+    }
+
+    @Override
+    public Serializer<CanonicalEvent> serializer() {
+        Serializer<CanonicalEvent> jsonSerializer = json.serializer();
+
+        return new Serializer<>() {
+            @Override
+            public byte[] serialize(String topic, CanonicalEvent data) {
+                if (data == null) {
+                    return null;
+                }
+                return binary ? CanonicalEventCodec.encode(data) : jsonSerializer.serialize(topic, data);
+            }
+
+            @Override
+            public byte[] serialize(String topic, Headers headers, CanonicalEvent data) {
+                if (data != null && headers != null) {
+                    headers.remove(HEADER_CONTENT_TYPE);
+                    headers.add(HEADER_CONTENT_TYPE, binary ? BINARY_HEADER : JSON_HEADER);
+                }
+                return serialize(topic, data);
+            }
+        };
+    }
+
+    @Override
+    public Deserializer<CanonicalEvent> deserializer() {
+        Deserializer<CanonicalEvent> jsonDeserializer = json.deserializer();
+
+        return new Deserializer<>() {
+            @Override
+            public CanonicalEvent deserialize(String topic, byte[] data) {
+                if (data == null) {
+                    return null;
+                }
+                return canonical(
+                    CanonicalEventCodec.isBinary(data) ? decodeBinary(data) : jsonDeserializer.deserialize(topic, data)
+                );
+            }
+
+            @Override
+            public CanonicalEvent deserialize(String topic, Headers headers, byte[] data) {
+                Header h = headers == null ? null : headers.lastHeader(HEADER_CONTENT_TYPE);
+                if (data == null || h == null) {
+                    return deserialize(topic, data);
+                }
+
+                if (Arrays.equals(h.value(), BINARY_HEADER)) {
+                    return canonical(decodeBinary(data));
+                }
+                if (Arrays.equals(h.value(), JSON_HEADER)) {
+                    return canonical(jsonDeserializer.deserialize(topic, data));
+                }
+                throw new RuntimeException(
+                    "unsupported content-type: " + new String(h.value(), StandardCharsets.UTF_8));
+            }
+        };
+    }
+
+    private static CanonicalEvent canonical(CanonicalEvent e) {
+        if (e != null) {
+            SourceIdRegistry.canonicalize(e);
+        }
+        return e;
+    }
+
+    private static CanonicalEvent decodeBinary(byte[] data) {
+        try {
+            return CanonicalEventCodec.decode(data);
+        } catch (Exception e) {
+            throw new RuntimeException("binary deserialization failed", e);
+        }
     }
 }
@@ -0,0 +1,29 @@
+package onlog.common.serde;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * 전 모듈 공용 ObjectMapper (JsonSerde / ingest Dispatcher)
+ *
+ * - Blackbird: field / setter 접근을 reflection 대신 생성된 lambda로
+ * - Instant → ISO-8601 문자열 (timestamp 숫자 아님)
+ * - 모르는 field는 무시 (쓰는 쪽이 먼저 field를 추가해도 안 깨짐)
+ *
+ * 설정 변경 금지 (여기서 만든 reader / writer가 캐시되어 공유됨)
+ */
+public final class JsonMappers {
+
+    public static final ObjectMapper MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .addModule(new BlackbirdModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private JsonMappers() {}
+}
@@ -1,24 +1,37 @@
 package onlog.common.serde;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serializer;
 
+/**
+ * JSON serde (공용 mapper, 타입별 reader / writer 캐시)
+ *
+ * - ObjectReader / ObjectWriter는 immutable → serde 인스턴스마다 한 번 만들고 재사용
+ * - 출력 버퍼는 Jackson BufferRecycler (thread별 pool)에서 빌려 씀
+ *   → 직접 ThreadLocal 버퍼를 두면 1KB 넘는 값(ParseErrorEvent raw)에서 오히려 block 재할당
+ */
 public class JsonSerde<T> implements Serde<T> {
 
-    private final ObjectMapper mapper = new ObjectMapper();
-    private final Class<T> targetClass;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
 
     public JsonSerde(Class<T> targetClass) {
-        this.targetClass = targetClass;
+        this.reader = JsonMappers.MAPPER.readerFor(targetClass);
+        this.writer = JsonMappers.MAPPER.writerFor(targetClass);
     }
 
     @Override
     public Serializer<T> serializer() {
         return (topic, data) -> {
+            if (data == null) {
+                return null;
+            }
+
             try {
-                return mapper.writeValueAsBytes(data);
+                return writer.writeValueAsBytes(data);
             } catch (Exception e) {
                 throw new RuntimeException("JSON serialization failed", e);
             }
@@ -28,8 +41,12 @@ public class JsonSerde<T> implements Serde<T> {
     @Override
     public Deserializer<T> deserializer() {
         return (topic, data) -> {
+            if (data == null) {
+                return null;
+            }
+
             try {
-                return mapper.readValue(data, targetClass);
+                return reader.readValue(data);
             } catch (Exception e) {
                 throw new RuntimeException("JSON deserialization failed", e);
             }
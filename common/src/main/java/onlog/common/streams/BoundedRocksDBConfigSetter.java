@@ -0,0 +1,135 @@
+package onlog.common.streams;
+
+import org.apache.kafka.streams.state.RocksDBConfigSetter;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.CompressionType;
+import org.rocksdb.DataBlockIndexType;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.WriteBufferManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RocksDB state store 공통 설정 (streams-parser / streams-kpi)
+ *
+ * 메모리 (프로세스 전체 고정, store / task 수와 무관)
+ * - block cache 1개 공유 (index / filter block 포함)
+ * - memtable은 WriteBufferManager로 같은 cache 안에서 charge
+ *   → off-heap ≈ ROCKSDB_BLOCK_CACHE_MB (+ RocksDB 자체 overhead)
+ *
+ * 조회
+ * - bloom filter (SST + memtable) → 없는 key 조회 시 디스크 안 읽음 (dedup 대부분이 miss)
+ * - data block hash index → block 안 point lookup
+ *
+ * 압축 (level별)
+ * - L0 / L1 : 없음 (flush / 자주 compaction 되는 구간)
+ * - 그 아래 : LZ4, 마지막 level : ZSTD
+ *
+ * StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG 로 등록
+ */
+public class BoundedRocksDBConfigSetter implements RocksDBConfigSetter {
+
+    // 프로세스 전체 block cache (memtable 포함)
+    public static final long BLOCK_CACHE_BYTES = getenvLong("ROCKSDB_BLOCK_CACHE_MB", 256) << 20;
+
+    // 그중 memtable 상한 (WriteBufferManager)
+    public static final long MEMTABLE_BYTES = getenvLong("ROCKSDB_MEMTABLE_MB", 64) << 20;
+
+    // store 당 memtable 1개 크기 (가득 차면 flush)
+    public static final long WRITE_BUFFER_BYTES = getenvLong("ROCKSDB_WRITE_BUFFER_MB", 16) << 20;
+
+    // key 당 bloom bit (10 → false positive ~1%)
+    public static final double BLOOM_BITS_PER_KEY = getenvLong("ROCKSDB_BLOOM_BITS", 10);
+
+    // index / filter block 우선 보관 비율
+    private static final double HIGH_PRI_POOL_RATIO = 0.1;
+
+    private static final List<CompressionType> COMPRESSION_PER_LEVEL = Arrays.asList(
+        CompressionType.NO_COMPRESSION,
+        CompressionType.NO_COMPRESSION,
+        CompressionType.LZ4_COMPRESSION,
+        CompressionType.LZ4_COMPRESSION,
+        CompressionType.LZ4_COMPRESSION,
+        CompressionType.LZ4_COMPRESSION,
+        CompressionType.LZ4_COMPRESSION
+    );
+
+    // ==================================================
+    // 공유 자원 (close 안 함, 프로세스 종료까지 유지)
+    // ==================================================
+    static {
+        if (MEMTABLE_BYTES >= BLOCK_CACHE_BYTES) {
+            throw new IllegalStateException(
+                "ROCKSDB_MEMTABLE_MB must be smaller than ROCKSDB_BLOCK_CACHE_MB");
+        }
+    }
+
+    private static final Cache CACHE =
+        new LRUCache(BLOCK_CACHE_BYTES, -1, false, HIGH_PRI_POOL_RATIO);
+
+    private static final WriteBufferManager WRITE_BUFFER_MANAGER =
+        new WriteBufferManager(MEMTABLE_BYTES, CACHE);
+
+    static {
+        System.out.printf(
+            "[RocksDB] blockCache=%dMB memtable=%dMB writeBuffer=%dMB bloomBits=%.0f%n",
+            BLOCK_CACHE_BYTES >> 20, MEMTABLE_BYTES >> 20, WRITE_BUFFER_BYTES >> 20, BLOOM_BITS_PER_KEY
+        );
+    }
+
+    // store 마다 (close에서 해제)
+    private BloomFilter filter;
+
+    @Override
+    public void setConfig(String storeName, Options options, Map<String, Object> configs) {
+
+        BlockBasedTableConfig table = (BlockBasedTableConfig) options.tableFormatConfig();
+
+        // =========================
+        // 메모리
+        // =========================
+        table.setBlockCache(CACHE);
+        table.setCacheIndexAndFilterBlocks(true);
+        table.setCacheIndexAndFilterBlocksWithHighPriority(true);
+        table.setPinTopLevelIndexAndFilter(true);
+
+        options.setWriteBufferManager(WRITE_BUFFER_MANAGER);
+        options.setWriteBufferSize(WRITE_BUFFER_BYTES);
+        options.setMaxWriteBufferNumber(2);
+
+        // =========================
+        // point lookup
+        // =========================
+        filter = new BloomFilter(BLOOM_BITS_PER_KEY, false);
+        table.setFilterPolicy(filter);
+        table.setDataBlockIndexType(DataBlockIndexType.kDataBlockBinaryAndHash);
+
+        options.setMemtableWholeKeyFiltering(true);
+        options.setMemtablePrefixBloomSizeRatio(0.1);
+
+        // =========================
+        // 압축
+        // =========================
+        options.setCompressionPerLevel(COMPRESSION_PER_LEVEL);
+        options.setBottommostCompressionType(CompressionType.ZSTD_COMPRESSION);
+
+        options.setTableFormatConfig(table);
+    }
+
+    @Override
+    public void close(String storeName, Options options) {
+        if (filter != null) {
+            filter.close();
+        }
+    }
+
+    private static long getenvLong(String key, long def) {
+        String v = System.getenv(key);
+        return v == null || v.isBlank() ? def : Long.parseLong(v.trim());
+    }
+}
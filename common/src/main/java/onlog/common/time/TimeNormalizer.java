@@ -5,17 +5,250 @@ import java.time.Instant;
 /**
  * Time normalization utilities
  * All downstream logic MUST use edge_ingest_time
+ *
+ * ISO-8601 파싱 fast path (우리가 쓰는 형식만):
+ *   yyyy-MM-ddTHH:mm:ss[.f{1,9}](Z | ±HH:MM)
+ * - 같은 초 / 같은 날 prefix는 캐시 → 연속 timestamp는 fraction / offset만 파싱
+ * - 그 외 형식 (소문자 z, leap second, 초 단위 offset 등)은 Instant.parse로 fallback
+ *   (에러도 기존과 동일한 DateTimeParseException)
  */
 public class TimeNormalizer {
 
+    // parseIsoMillis: null / empty
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+
     public static Instant parseIso(String value) {
         if (value == null || value.isEmpty()) {
             return null;
         }
-        return Instant.parse(value);
+
+        long sec = fastEpochSecond(value);
+        if (sec == NO_TIME) {
+            return Instant.parse(value);
+        }
+        return Instant.ofEpochSecond(sec, nanoOf(value));
+    }
+
+    /**
+     * parseIso와 같은 입력 → epoch millis (Instant 할당 없음, sub-ms는 버림)
+     *
+     * @return NO_TIME = null / empty
+     */
+    public static long parseIsoMillis(String value) {
+        if (value == null || value.isEmpty()) {
+            return NO_TIME;
+        }
+
+        long sec = fastEpochSecond(value);
+        if (sec == NO_TIME) {
+            return Instant.parse(value).toEpochMilli();
+        }
+        return Math.addExact(Math.multiplyExact(sec, 1000L), nanoOf(value) / 1_000_000);
     }
 
     public static Instant nowIfNull(Instant t) {
         return t == null ? Instant.now() : t;
     }
+
+    // ==================================================
+    // prefix 캐시
+    // ==================================================
+
+    // key = 입력 앞부분 그대로 (immutable → 경합 시 덮어써도 안전)
+    private static final class Prefix {
+        final String key;
+        final long epochSecond;
+
+        Prefix(String key, long epochSecond) {
+            this.key = key;
+            this.epochSecond = epochSecond;
+        }
+    }
+
+    // "yyyy-MM-dd" → 그날 00:00:00Z
+    private static volatile Prefix day = new Prefix("1970-01-01", 0L);
+
+    // "yyyy-MM-ddTHH:mm:ss" → 그 초 (offset 적용 전)
+    private static volatile Prefix second = new Prefix("1970-01-01T00:00:00", 0L);
+
+    // ==================================================
+    // fast path
+    // ==================================================
+
+    /**
+     * @return epoch second (offset 적용), NO_TIME = fast path 대상 아님
+     */
+    private static long fastEpochSecond(String s) {
+        int len = s.length();
+        if (len < 20) {
+            return NO_TIME;
+        }
+
+        int end = fractionEnd(s);
+        if (end < 0) {
+            return NO_TIME;
+        }
+
+        int offset = offsetSeconds(s, end);
+        if (offset == Integer.MIN_VALUE) {
+            return NO_TIME;
+        }
+
+        Prefix p = second;
+        if (!s.regionMatches(0, p.key, 0, 19)) {
+            long local = localSecond(s);
+            if (local == NO_TIME) {
+                return NO_TIME;
+            }
+            p = new Prefix(s.substring(0, 19), local);
+            second = p;
+        }
+        return p.epochSecond - offset;
+    }
+
+    private static long localSecond(String s) {
+        if (s.charAt(10) != 'T' || s.charAt(13) != ':' || s.charAt(16) != ':') {
+            return NO_TIME;
+        }
+
+        int hh = digits2(s, 11);
+        int mm = digits2(s, 14);
+        int ss = digits2(s, 17);
+        if (hh < 0 || hh > 23 || mm < 0 || mm > 59 || ss < 0 || ss > 59) {
+            return NO_TIME;
+        }
+
+        Prefix d = day;
+        if (!s.regionMatches(0, d.key, 0, 10)) {
+            long epochDay = epochDay(s);
+            if (epochDay == NO_TIME) {
+                return NO_TIME;
+            }
+            d = new Prefix(s.substring(0, 10), epochDay * SECONDS_PER_DAY);
+            day = d;
+        }
+        return d.epochSecond + hh * 3600L + mm * 60L + ss;
+    }
+
+    private static long epochDay(String s) {
+        if (s.charAt(4) != '-' || s.charAt(7) != '-') {
+            return NO_TIME;
+        }
+
+        int hi = digits2(s, 0);
+        int lo = digits2(s, 2);
+        int month = digits2(s, 5);
+        int dom = digits2(s, 8);
+        if (hi < 0 || lo < 0 || month < 1 || month > 12 || dom < 1) {
+            return NO_TIME;
+        }
+
+        int year = hi * 100 + lo;
+        if (dom > lengthOfMonth(year, month)) {
+            return NO_TIME;
+        }
+
+        // LocalDate.toEpochDay와 같은 계산
+        long y = year;
+        long total = 365 * y;
+        total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += dom - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeap(year)) {
+                total--;
+            }
+        }
+        return total - 719_528L; // 0000-01-01 → 1970-01-01
+    }
+
+    /**
+     * ".f{1,9}" 끝 index (fraction 없으면 19), -1 = 형식 아님
+     */
+    private static int fractionEnd(String s) {
+        if (s.charAt(19) != '.') {
+            return 19;
+        }
+
+        int i = 20;
+        int max = Math.min(s.length(), 29);
+        while (i < max && isDigit(s.charAt(i))) {
+            i++;
+        }
+        return i == 20 ? -1 : i;
+    }
+
+    private static int nanoOf(String s) {
+        if (s.charAt(19) != '.') {
+            return 0;
+        }
+
+        int nano = 0;
+        int i = 20;
+        for (; i < 29 && isDigit(s.charAt(i)); i++) {
+            nano = nano * 10 + (s.charAt(i) - '0');
+        }
+        for (; i < 29; i++) {
+            nano *= 10;
+        }
+        return nano;
+    }
+
+    /**
+     * "Z" | "±HH:MM" (문자열 끝까지), Integer.MIN_VALUE = 형식 아님
+     */
+    private static int offsetSeconds(String s, int i) {
+        int rest = s.length() - i;
+
+        if (rest == 1 && s.charAt(i) == 'Z') {
+            return 0;
+        }
+        if (rest != 6 || s.charAt(i + 3) != ':') {
+            return Integer.MIN_VALUE;
+        }
+
+        char sign = s.charAt(i);
+        int hh = digits2(s, i + 1);
+        int mm = digits2(s, i + 4);
+        if ((sign != '+' && sign != '-') || hh < 0 || mm < 0 || mm > 59) {
+            return Integer.MIN_VALUE;
+        }
+
+        int total = hh * 3600 + mm * 60;
+        if (total > 18 * 3600) {
+            return Integer.MIN_VALUE;
+        }
+        return sign == '+' ? total : -total;
+    }
+
+    // ==================================================
+    // helpers
+    // ==================================================
+    private static int digits2(String s, int i) {
+        char a = s.charAt(i);
+        char b = s.charAt(i + 1);
+        if (!isDigit(a) || !isDigit(b)) {
+            return -1;
+        }
+        return (a - '0') * 10 + (b - '0');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLeap(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
 }
@@ -0,0 +1,164 @@
+package onlog.common.util;
+
+import onlog.common.model.CanonicalEvent;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * identity tuple (tenant, line, process, deviceType, metric) → Identity
+ *
+ * - Identity = 정수 id + canonical(공유) 문자열 + sourceId (한 번만 String.join)
+ * - 조회: direct-mapped cache (배열, 크기 고정) → hit이면 할당 없음
+ * - 등록: MAX_IDS 까지만 (넘으면 id = UNREGISTERED, 매번 새로 만듦)
+ *
+ * id는 프로세스 안에서만 고정 (처음 본 순서) → wire format에 쓰지 말 것
+ */
+public final class SourceIdRegistry {
+
+    public static final int UNREGISTERED = -1;
+
+    // 등록 가능한 tuple 수 (실제 distinct 조합은 수백 개 수준)
+    private static final int MAX_IDS = 65_536;
+
+    // 2의 거듭제곱
+    private static final int CACHE_SIZE = 4_096;
+
+    public static final class Identity {
+        public final int id;
+        public final String tenantId;
+        public final String lineId;
+        public final String process;
+        public final String deviceType;
+        public final String metric;
+        public final String sourceId;
+
+        private Identity(int id, String tenantId, String lineId, String process,
+                         String deviceType, String metric) {
+            this.id = id;
+            this.tenantId = tenantId;
+            this.lineId = lineId;
+            this.process = process;
+            this.deviceType = deviceType;
+            this.metric = metric;
+            this.sourceId = SourceIdUtil.build(tenantId, lineId, process, deviceType, metric);
+        }
+
+        private boolean matches(String tenantId, String lineId, String process,
+                                String deviceType, String metric) {
+            return Objects.equals(this.metric, metric)
+                && Objects.equals(this.deviceType, deviceType)
+                && Objects.equals(this.process, process)
+                && Objects.equals(this.lineId, lineId)
+                && Objects.equals(this.tenantId, tenantId);
+        }
+    }
+
+    // Identity는 immutable (final field) → 경합 시 덮어써도 안전
+    private static final Identity[] CACHE = new Identity[CACHE_SIZE];
+
+    private static final Map<String, Identity> BY_TUPLE = new ConcurrentHashMap<>();
+    private static volatile Identity[] byId = new Identity[64];
+    private static int nextId = 0;
+
+    public static Identity resolve(String tenantId, String lineId, String process,
+                                   String deviceType, String metric) {
+
+        int slot = hash(tenantId, lineId, process, deviceType, metric) & (CACHE_SIZE - 1);
+
+        Identity cached = CACHE[slot];
+        if (cached != null && cached.matches(tenantId, lineId, process, deviceType, metric)) {
+            return cached;
+        }
+
+        Identity identity = register(tenantId, lineId, process, deviceType, metric);
+        CACHE[slot] = identity;
+        return identity;
+    }
+
+    /**
+     * @return null = 등록 안 된 id
+     */
+    public static Identity byId(int id) {
+        Identity[] ids = byId;
+        return id >= 0 && id < ids.length ? ids[id] : null;
+    }
+
+    /**
+     * identity 필드를 canonical 인스턴스로 교체 (역직렬화 직후 중복 문자열 제거)
+     * - sourceId는 같은 값일 때만 교체
+     */
+    public static void canonicalize(CanonicalEvent e) {
+        Identity i = resolve(e.tenantId, e.lineId, e.process, e.deviceType, e.metric);
+
+        e.tenantId   = i.tenantId;
+        e.lineId     = i.lineId;
+        e.process    = i.process;
+        e.deviceType = i.deviceType;
+        e.metric     = i.metric;
+
+        if (i.sourceId.equals(e.sourceId)) {
+            e.sourceId = i.sourceId;
+        }
+    }
+
+    // ==================================================
+    // 등록 (cache miss 시에만)
+    // ==================================================
+    private static Identity register(String tenantId, String lineId, String process,
+                                     String deviceType, String metric) {
+
+        String key = tupleKey(tenantId, lineId, process, deviceType, metric);
+
+        Identity known = BY_TUPLE.get(key);
+        if (known != null) {
+            return known;
+        }
+
+        synchronized (SourceIdRegistry.class) {
+            known = BY_TUPLE.get(key);
+            if (known != null) {
+                return known;
+            }
+
+            if (nextId >= MAX_IDS) {
+                return new Identity(UNREGISTERED, tenantId, lineId, process, deviceType, metric);
+            }
+
+            Identity identity = new Identity(nextId, tenantId, lineId, process, deviceType, metric);
+
+            Identity[] ids = byId;
+            if (nextId == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[nextId++] = identity;
+            byId = ids;
+
+            BY_TUPLE.put(key, identity);
+            return identity;
+        }
+    }
+
+    // null과 "" 구분 (\0 = null), 구분자 \1
+    private static String tupleKey(String... parts) {
+        StringBuilder sb = new StringBuilder(64);
+        for (String p : parts) {
+            sb.append(p == null ? "\0" : p).append('\1');
+        }
+        return sb.toString();
+    }
+
+    private static int hash(String tenantId, String lineId, String process,
+                            String deviceType, String metric) {
+        int h = Objects.hashCode(tenantId);
+        h = h * 31 + Objects.hashCode(lineId);
+        h = h * 31 + Objects.hashCode(process);
+        h = h * 31 + Objects.hashCode(deviceType);
+        h = h * 31 + Objects.hashCode(metric);
+        return h ^ (h >>> 16);
+    }
+
+    private SourceIdRegistry() {}
+}
@@ -1,24 +1,33 @@
 package onlog.consumer.ingest;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import onlog.common.model.CanonicalEvent;
 import onlog.common.model.KpiEvent;
+import onlog.common.serde.CanonicalEventSerde;
+import onlog.common.serde.JsonSerde;
 import onlog.consumer.ingest.kpi.KpiWriter;
 import onlog.consumer.ingest.raw.EnvWriter;
 import onlog.consumer.ingest.raw.MachineWriter;
 import onlog.consumer.ingest.raw.ScaleWriter;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
 
 public class Dispatcher {
 
-    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // 공용 mapper, KpiEvent reader 캐시
+    private static final Deserializer<KpiEvent> KPI =
+            new JsonSerde<>(KpiEvent.class).deserializer();
 
-    public static void dispatch(String topic, String value) throws Exception {
+    // JSON / binary (content-type header)
+    private static final Deserializer<CanonicalEvent> CANONICAL =
+            new CanonicalEventSerde().deserializer();
+
+    public static void dispatch(String topic, Headers headers, byte[] value) throws Exception {
 
         switch (topic) {
 
             case "sensor.parsed": {
                 CanonicalEvent e =
-                        MAPPER.readValue(value, CanonicalEvent.class);
+                        CANONICAL.deserialize(topic, headers, value);
 
                 if ("ENV".equals(e.process)) {
                     EnvWriter.write(e);
@@ -31,7 +40,7 @@ public class Dispatcher {
             }
 
             case "kpi.event": {
-                KpiEvent k = MAPPER.readValue(value, KpiEvent.class);
+                KpiEvent k = KPI.deserialize(topic, value);
                 KpiWriter.write(k);
                 break;
             }
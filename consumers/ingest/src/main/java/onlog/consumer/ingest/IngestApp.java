@@ -19,7 +19,7 @@ public class IngestApp {
         Properties props =
                 KafkaConsumerConfig.base("ingest-consumer");
 
-        try (KafkaConsumer<String, String> consumer =
+        try (KafkaConsumer<String, byte[]> consumer =
                      new KafkaConsumer<>(props)) {
 
             consumer.subscribe(
@@ -27,12 +27,12 @@ public class IngestApp {
             );
 
             while (true) {
-                ConsumerRecords<String, String> records =
+                ConsumerRecords<String, byte[]> records =
                         consumer.poll(Duration.ofSeconds(1));
 
                 records.forEach(r -> {
                     try {
-                        Dispatcher.dispatch(r.topic(), r.value());
+                        Dispatcher.dispatch(r.topic(), r.headers(), r.value());
                     } catch (Exception e) {
                         log.error(
                             "ingest failed topic={} offset={}",
@@ -5,6 +5,7 @@ import onlog.common.serde.CanonicalEventSerde;
 import onlog.common.serde.JsonSerde;
 import onlog.common.model.KpiEvent;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 
 import java.util.Properties;
@@ -42,10 +43,12 @@ public class KafkaConsumerConfig {
                 ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG,
                 StringDeserializer.class
         );
+        // value는 byte[] 그대로 (sensor.parsed = JSON / binary, Dispatcher에서 판별)
         p.put(
                 ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
-                StringDeserializer.class
+                ByteArrayDeserializer.class
         );
 
         return p;
         }
+}
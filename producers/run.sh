@@ -37,11 +37,16 @@ fi
 : "${DB_BASE_PATH:?}"
 : "${PRODUCER_MODE:?}"
 
-if [[ "$PRODUCER_MODE" != "realtime" && "$PRODUCER_MODE" != "backfill" ]]; then
-  echo "[ERROR] PRODUCER_MODE must be 'realtime' or 'backfill'"
+if [[ "$PRODUCER_MODE" != "realtime" && "$PRODUCER_MODE" != "backfill" && "$PRODUCER_MODE" != "combined" ]]; then
+  echo "[ERROR] PRODUCER_MODE must be 'realtime', 'backfill' or 'combined'"
   exit 1
 fi
 
+# combined는 realtime 시작 id까지 backfill (cutoff 안 씀)
+if [[ "$PRODUCER_MODE" == "backfill" ]]; then
+  : "${BACKFILL_CUTOFF:?BACKFILL_CUTOFF required for $PRODUCER_MODE}"
+fi
+
 ######################################
 # 5. restart policy 결정
 ######################################
@@ -51,7 +56,24 @@ if [ "$PRODUCER_MODE" = "backfill" ]; then
 fi
 
 ######################################
-# 6. Docker 설정
+# 6. Spool 디렉터리 (설정 시 host에 유지)
+######################################
+SPOOL_MOUNT=()
+if [ -n "${SPOOL_DIR:-}" ]; then
+  mkdir -p "$SPOOL_DIR"
+  SPOOL_MOUNT=(-v "$SPOOL_DIR:$SPOOL_DIR")
+fi
+
+######################################
+# 7. Metrics 포트 (설정 시 publish)
+######################################
+METRICS_PUBLISH=()
+if [ -n "${METRICS_PORT:-}" ]; then
+  METRICS_PUBLISH=(-p "$METRICS_PORT:$METRICS_PORT")
+fi
+
+######################################
+# 8. Docker 설정
 ######################################
 IMAGE=onlog/msk-producer:latest
 CONTAINER=onlog-msk-producer-${PRODUCER_MODE}
@@ -72,8 +94,28 @@ docker run -d \
   -e DB_BASE_PATH \
   -e PRODUCER_MODE \
   -e BACKFILL_CUTOFF \
+  -e REALTIME_PAGE_SIZE \
+  -e REALTIME_PROBE_MS \
+  -e REALTIME_MAX_INTERVAL_MS \
+  -e REALTIME_LATENCY_BUDGET_MS \
+  -e PRODUCER_MAX_IN_FLIGHT \
+  -e PRODUCER_BATCH_ROWS \
+  -e FILTER_DEADBAND \
+  -e FILTER_HEARTBEAT_MS \
+  -e SPOOL_DIR \
+  -e SPOOL_MAX_BYTES \
+  -e SPOOL_SEGMENT_BYTES \
+  -e SPOOL_AFTER_MS \
+  -e BACKFILL_PARALLEL \
+  -e BACKFILL_QUEUE_BATCHES \
+  -e BACKFILL_RATE_LIMIT \
+  -e BACKFILL_MAX_IN_FLIGHT \
+  -e BACKFILL_CHECKPOINT_FILE \
+  -e METRICS_PORT \
   -v /home/ubuntu/.aws:/root/.aws:ro \
   -v "$DB_BASE_PATH:$DB_BASE_PATH" \
+  "${SPOOL_MOUNT[@]}" \
+  "${METRICS_PUBLISH[@]}" \
   $IMAGE
 
 docker ps | grep $CONTAINER || true
@@ -1,16 +1,30 @@
+import backfill.BackfillCheckpoint;
+import backfill.ParallelBackfill;
+import filter.DeadbandFilter;
+import kafka.AckWatermark;
+import kafka.DiskSpool;
 import kafka.KafkaProducerFactory;
 import kafka.KafkaSender;
+import metrics.MetricsServer;
+import metrics.ReadStats;
 import model.RawLogRow;
+import realtime.RealtimeTail;
 import sqlite.RawLogRepository;
 import sqlite.SqliteClient;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.time.Instant;
 import java.util.*;
 
 public class Main {
 
+    private static final long STATS_EVERY_MS = 60_000;
+
+    private static final int BACKFILL_BATCH_SIZE = 1_000;
+    private static final int BACKFILL_LOG_EVERY  = 10_000;
+
     public static void main(String[] args) throws Exception {
 
         String bootstrap = getenv("KAFKA_BOOTSTRAP_SERVERS");
@@ -26,13 +40,62 @@ public class Main {
             }
         }));
 
-        var sender = new KafkaSender(producer);
+        // store-and-forward spool (SPOOL_DIR 설정 시)
+        String spoolDir = System.getenv("SPOOL_DIR");
+        DiskSpool spool = null;
+        if (spoolDir != null && !spoolDir.isEmpty()) {
+            spool = new DiskSpool(
+                Path.of(spoolDir),
+                getenvLong("SPOOL_SEGMENT_BYTES", 64L << 20),
+                getenvLong("SPOOL_MAX_BYTES", 1L << 30)
+            );
+            Runtime.getRuntime().addShutdownHook(new Thread(spool::close));
+            System.out.println("[Spool] " + spoolDir);
+        }
+
+        // deadband / change-only filter (FILTER_DEADBAND 설정 시)
+        String deadbandSpec = System.getenv("FILTER_DEADBAND");
+        DeadbandFilter filter = null;
+        if (deadbandSpec != null && !deadbandSpec.isEmpty()) {
+            filter = DeadbandFilter.parse(
+                deadbandSpec,
+                getenvLong("FILTER_HEARTBEAT_MS", 300_000)
+            );
+            System.out.println("[Filter] deadband " + deadbandSpec);
+        }
+
+        var sender = new KafkaSender(
+            producer,
+            getenvInt("PRODUCER_MAX_IN_FLIGHT", 10_000),
+            spool,
+            getenvInt("SPOOL_AFTER_MS", 200),
+            filter
+        );
+
+        // batch envelope (streams-parser가 먼저 배포되어 있어야 함)
+        int batchRows = getenvInt("PRODUCER_BATCH_ROWS", 1);
+        if (batchRows > 1) {
+            sender.enableBatching(batchRows);
+            System.out.println("[Batch envelope] rows=" + batchRows);
+        }
+
+        // metrics endpoint (METRICS_PORT 설정 시)
+        int metricsPort = getenvInt("METRICS_PORT", 0);
+        if (metricsPort > 0) {
+            MetricsServer.start(metricsPort, sender.stats(), ReadStats.global(), producer);
+        }
 
         System.out.println("[Producer mode] " + mode);
 
+        if ("combined".equals(mode)) {
+            runCombined(basePath, sender);
+            return;
+        }
+
         if ("backfill".equals(mode)) {
             runBackfill(basePath, sender);
             sender.flush();
+            sender.stats().print();
             System.out.println("[Backfill completed]");
             return;
         }
@@ -45,58 +108,141 @@ public class Main {
     // ==================================================
     private static void runRealtime(String basePath, KafkaSender sender) throws Exception {
 
-        File[] dbFiles = new File(basePath)
-                .listFiles(f -> f.getName().endsWith(".sqlite"));
+        File[] dbFiles = listDbFiles(basePath);
 
-        if (dbFiles == null || dbFiles.length == 0) {
+        if (dbFiles.length == 0) {
             System.out.println("[Realtime] no sqlite files found");
             return;
         }
 
-        Map<String, Instant> lastSentPerDb = new HashMap<>();
+        // 파일 변경 probe 주기
+        final int PROBE_MS = getenvInt("REALTIME_PROBE_MS", 50);
+
+        RealtimeTail realtime = newRealtimeTail(dbFiles, sender);
 
-        Instant realtimeStart = Instant.now();
-        System.out.println("[Realtime start] T0=" + realtimeStart);
+        long lastStatsMs = System.currentTimeMillis();
 
         while (true) {
 
-            Instant now = Instant.now();
+            realtime.pollDue();
 
-            for (File db : dbFiles) {
+            if (System.currentTimeMillis() - lastStatsMs >= STATS_EVERY_MS) {
+                sender.stats().print();
+                lastStatsMs = System.currentTimeMillis();
+            }
 
-                String dbName = db.getName();
-                Instant lastSent = lastSentPerDb.get(dbName);
+            Thread.sleep(PROBE_MS);
+        }
+    }
 
-                if (lastSent == null) {
-                    lastSent = realtimeStart;
-                    lastSentPerDb.put(dbName, lastSent);
-                }
+    // ==================================================
+    // Combined (realtime 우선, backfill은 남는 capacity로)
+    // ==================================================
+    private static void runCombined(String basePath, KafkaSender sender) throws Exception {
 
-                try (Connection conn = SqliteClient.connect(db.getAbsolutePath())) {
+        File[] dbFiles = listDbFiles(basePath);
 
-                    RawLogRepository repo = new RawLogRepository(conn);
-                    List<RawLogRow> rows = repo.findBetween(lastSent, now);
+        if (dbFiles.length == 0) {
+            System.out.println("[Combined] no sqlite files found");
+            return;
+        }
 
-                    if (!rows.isEmpty()) {
-                        System.out.printf(
-                            "[Realtime] db=%s rows=%d (%s → %s)%n",
-                            dbName, rows.size(), lastSent, now
-                        );
-                    }
+        final int PROBE_MS = getenvInt("REALTIME_PROBE_MS", 50);
 
-                    for (RawLogRow row : rows) {
-                        sender.send(row);
-                        lastSent = row.receivedAt;
-                    }
+        // realtime의 ack 안 된 row가 이보다 오래되면 backfill 양보
+        final long LATENCY_BUDGET_MS = getenvInt("REALTIME_LATENCY_BUDGET_MS", 1_000);
+
+        // backfill은 in-flight가 이 값 미만일 때만 batch 전송 (나머지는 realtime 몫)
+        final int BACKFILL_MAX_IN_FLIGHT = getenvInt(
+            "BACKFILL_MAX_IN_FLIGHT",
+            getenvInt("PRODUCER_MAX_IN_FLIGHT", 10_000) / 2
+        );
+
+        // realtime tail 위치를 먼저 잡고, backfill은 DB별 그 id까지 (cutoff 없음 → 빈 구간 없음)
+        RealtimeTail realtime = newRealtimeTail(dbFiles, sender);
+
+        Map<String, Long> startIds = realtime.startIds();
+        System.out.println("[Backfill bound] realtime start ids " + startIds);
+
+        ParallelBackfill backfill = new ParallelBackfill(
+            loadCheckpoint(basePath, BackfillCheckpoint.REALTIME_START),
+            startIds,
+            BACKFILL_BATCH_SIZE,
+            getenvInt("BACKFILL_QUEUE_BATCHES", 16),
+            getenvInt("BACKFILL_RATE_LIMIT", 0),   // rows/sec, 0 = unlimited
+            BACKFILL_LOG_EVERY
+        );
+        backfill.start(dbFiles);
+
+        boolean backfillRunning = true;
+        long yields = 0;
+        long lastStatsMs = System.currentTimeMillis();
+
+        while (true) {
+
+            long tickStart = System.currentTimeMillis();
+
+            // 1) realtime 먼저 (매 tick)
+            realtime.pollDue();
 
-                    lastSentPerDb.put(dbName, lastSent);
+            // 2) 다음 realtime probe까지 남는 시간만 backfill
+            int backfillRows = 0;
+
+            while (backfillRunning
+                    && System.currentTimeMillis() - tickStart < PROBE_MS) {
+
+                if (realtime.lagMs() > LATENCY_BUDGET_MS) {
+                    yields++;
+                    break;
+                }
+                if (sender.isSpooling() || sender.inFlight() >= BACKFILL_MAX_IN_FLIGHT) {
+                    break;
                 }
+
+                int n = backfill.trySendBatch(sender);
+
+                if (backfill.isDone()) {
+                    backfillRunning = false;
+                    try {
+                        backfill.finish(sender);
+                    } catch (IllegalStateException e) {
+                        // realtime은 계속 (재시작하면 checkpoint부터 이어서)
+                        System.err.println("[Combined] " + e.getMessage());
+                    }
+                    break;
+                }
+                if (n == 0) break;
+
+                backfillRows += n;
             }
 
-            Thread.sleep(500);
+            if (System.currentTimeMillis() - lastStatsMs >= STATS_EVERY_MS) {
+                sender.stats().print();
+                System.out.printf(
+                    "[Combined] realtime lag=%dms backfill=%s yields=%d%n",
+                    realtime.lagMs(), backfillRunning ? "running" : "done", yields
+                );
+                lastStatsMs = System.currentTimeMillis();
+            }
+
+            // backfill이 보낼 게 있었으면 바로 다음 tick
+            if (backfillRows == 0) {
+                long elapsed = System.currentTimeMillis() - tickStart;
+                Thread.sleep(Math.max(1, PROBE_MS - elapsed));
+            }
         }
     }
 
+    private static RealtimeTail newRealtimeTail(File[] dbFiles, KafkaSender sender) throws Exception {
+        return new RealtimeTail(
+            dbFiles,
+            sender,
+            getenvInt("REALTIME_PAGE_SIZE", 500),
+            // 변경이 안 보여도 query하는 최대 간격
+            getenvInt("REALTIME_MAX_INTERVAL_MS", 5_000)
+        );
+    }
+
     // ==================================================
     // Backfill (Realtime 시작 시점 이전까지만)
     // ==================================================
@@ -107,27 +253,42 @@ public class Main {
 
         System.out.println("[Backfill cutoff] " + cutoffTime);
 
-        File[] dbFiles = new File(basePath)
-                .listFiles(f -> f.getName().endsWith(".sqlite"));
+        File[] dbFiles = listDbFiles(basePath);
+
+        if (dbFiles.length == 0) return;
+
+        final int BATCH_SIZE = BACKFILL_BATCH_SIZE;
+        final int LOG_EVERY  = BACKFILL_LOG_EVERY;
 
-        if (dbFiles == null || dbFiles.length == 0) return;
+        BackfillCheckpoint checkpoint = loadCheckpoint(basePath, cutoffTime);
 
-        final int BATCH_SIZE = 1_000;
-        final int LOG_EVERY  = 10_000;
-        final int SLEEP_MS  = 5;
+        if ("true".equals(getenvOrDefault("BACKFILL_PARALLEL", "false"))) {
+            new ParallelBackfill(
+                checkpoint,
+                cutoffTime,
+                BATCH_SIZE,
+                getenvInt("BACKFILL_QUEUE_BATCHES", 16),
+                getenvInt("BACKFILL_RATE_LIMIT", 0),   // rows/sec, 0 = unlimited
+                LOG_EVERY
+            ).run(dbFiles, sender);
+            return;
+        }
 
         class DbState {
             final String name;
             final Connection conn;
             final RawLogRepository repo;
-            Instant cursor = Instant.EPOCH;
+            final AckWatermark acks;
+            long cursor;
             long sent = 0;
             boolean finished = false;
 
             DbState(File db) throws Exception {
                 this.name = db.getName();
                 this.conn = SqliteClient.connect(db.getAbsolutePath());
-                this.repo = new RawLogRepository(conn);
+                this.repo = new RawLogRepository(conn, name);
+                this.cursor = checkpoint.startId(name);
+                this.acks = new AckWatermark(cursor, checkpoint.startAt(name));
             }
         }
 
@@ -135,7 +296,7 @@ public class Main {
         for (File db : dbFiles) {
             DbState s = new DbState(db);
             states.add(s);
-            System.out.println("[Backfill start] " + s.name);
+            System.out.printf("[Backfill start] %s fromId=%d%n", s.name, s.cursor);
         }
 
         boolean running = true;
@@ -149,21 +310,14 @@ public class Main {
                 if (state.finished) continue;
                 running = true;
 
-                List<RawLogRow> rows =
-                        state.repo.findBetween(state.cursor, cutoffTime, BATCH_SIZE);
-
-                if (rows.isEmpty()) {
-                    state.finished = true;
-                    System.out.printf(
-                        "[Backfill completed] %s total=%d%n",
-                        state.name, state.sent
-                    );
-                    continue;
-                }
+                // BATCH_SIZE만 읽고 statement를 닫은 뒤 전송, DB끼리 BATCH_SIZE씩 번갈아
+                // (send가 in-flight 상한에서 block 돼도 read snapshot / WAL을 잡지 않음)
+                List<RawLogRow> rows = new ArrayList<>(BATCH_SIZE);
+                long n = state.repo.streamAfterId(state.cursor, cutoffTime, BATCH_SIZE, rows::add);
 
                 for (RawLogRow row : rows) {
-                    sender.send(row);
-                    state.cursor = row.receivedAt;
+                    sender.send(row, state.acks.track(row));
+                    state.cursor = row.id;
                     state.sent++;
 
                     if (state.sent % LOG_EVERY == 0) {
@@ -173,22 +327,73 @@ public class Main {
                         );
                     }
                 }
+
+                if (n == 0) {
+                    state.finished = true;
+                    System.out.printf(
+                        "[Backfill completed] %s total=%d%n",
+                        state.name, state.sent
+                    );
+                }
             }
 
-            sender.flush();
-            Thread.sleep(SLEEP_MS);
+            // round마다 flush / sleep 하지 않음 (in-flight 상한이 속도 조절)
+            sender.flushBatches();
+
+            // ack된 위치까지만 기록
+            for (DbState state : states) {
+                checkpoint.update(state.name, state.acks.committedId(), state.acks.committedAt());
+            }
+            checkpoint.saveIfDue();
+        }
+
+        // 남은 ack 대기 → callback 전부 완료
+        sender.flush();
+
+        for (DbState state : states) {
+            checkpoint.update(state.name, state.acks.committedId(), state.acks.committedAt());
         }
+        checkpoint.save();
 
         for (DbState s : states) {
             s.conn.close();
         }
 
+        for (DbState s : states) {
+            if (s.acks.failed() > 0) {
+                throw new IllegalStateException(
+                    "backfill send errors in " + s.name
+                        + " (resume from id=" + s.acks.committedId() + ")"
+                );
+            }
+        }
+
         System.out.println("[Backfill] all DBs completed");
     }
 
+    private static BackfillCheckpoint loadCheckpoint(String basePath, Instant cutoffTime) throws Exception {
+        return loadCheckpoint(basePath, cutoffTime.toString());
+    }
+
+    private static BackfillCheckpoint loadCheckpoint(String basePath, String cutoff) throws Exception {
+        return BackfillCheckpoint.load(
+            Path.of(getenvOrDefault(
+                "BACKFILL_CHECKPOINT_FILE",
+                basePath + "/.backfill-checkpoint"
+            )),
+            cutoff
+        );
+    }
+
     // ==================================================
     // Utils
     // ==================================================
+    private static File[] listDbFiles(String basePath) {
+        File[] dbFiles = new File(basePath)
+                .listFiles(f -> f.getName().endsWith(".sqlite"));
+        return dbFiles == null ? new File[0] : dbFiles;
+    }
+
     private static String getenv(String key) {
         String v = System.getenv(key);
         if (v == null || v.isEmpty()) {
@@ -201,4 +406,14 @@ public class Main {
         String v = System.getenv(key);
         return (v == null || v.isEmpty()) ? def : v;
     }
+
+    private static int getenvInt(String key, int def) {
+        String v = System.getenv(key);
+        return (v == null || v.isEmpty()) ? def : Integer.parseInt(v);
+    }
+
+    private static long getenvLong(String key, long def) {
+        String v = System.getenv(key);
+        return (v == null || v.isEmpty()) ? def : Long.parseLong(v);
+    }
 }
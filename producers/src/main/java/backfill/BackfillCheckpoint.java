@@ -0,0 +1,116 @@
+package backfill;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Properties;
+
+/**
+ * Backfill 재개용 checkpoint (DB별 마지막 ack 위치)
+ *
+ * <pre>
+ * cutoff=2025-01-01T00:00:00Z
+ * F01_sensor_env.sqlite.id=123456
+ * F01_sensor_env.sqlite.received_at=2024-12-31T10:00:00.123Z
+ * </pre>
+ *
+ * - Kafka ack가 확인된 위치만 기록 (AckWatermark)
+ * - cutoff가 바뀌면 이전 checkpoint는 무시하고 처음부터
+ * - combined mode는 cutoff = REALTIME_START (재시작해도 그대로 → 항상 이어서)
+ * - tmp 파일에 쓰고 rename → 중간에 죽어도 파일이 깨지지 않음
+ */
+public class BackfillCheckpoint {
+
+    private static final long SAVE_INTERVAL_MS = 1_000;
+
+    // combined mode: 시각 대신 DB별 realtime 시작 id까지
+    public static final String REALTIME_START = "realtime-start";
+
+    private final Path file;
+    private final Properties props;
+
+    private boolean dirty;
+    private long lastSaveMs;
+
+    private BackfillCheckpoint(Path file, Properties props) {
+        this.file = file;
+        this.props = props;
+    }
+
+    public static BackfillCheckpoint load(Path file, Instant cutoff) throws IOException {
+        return load(file, cutoff.toString());
+    }
+
+    public static BackfillCheckpoint load(Path file, String cutoff) throws IOException {
+
+        Properties props = new Properties();
+
+        if (Files.exists(file)) {
+            try (Reader r = Files.newBufferedReader(file)) {
+                props.load(r);
+            }
+
+            if (!cutoff.equals(props.getProperty("cutoff"))) {
+                System.out.printf(
+                    "[Backfill checkpoint] cutoff changed (%s → %s), ignoring %s%n",
+                    props.getProperty("cutoff"), cutoff, file
+                );
+                props.clear();
+            } else {
+                System.out.println("[Backfill checkpoint] resuming from " + file);
+            }
+        }
+
+        props.setProperty("cutoff", cutoff);
+        return new BackfillCheckpoint(file, props);
+    }
+
+    public synchronized long startId(String db) {
+        return Long.parseLong(props.getProperty(db + ".id", "0"));
+    }
+
+    public synchronized Instant startAt(String db) {
+        String v = props.getProperty(db + ".received_at");
+        return v == null ? Instant.EPOCH : Instant.parse(v);
+    }
+
+    public synchronized void update(String db, long id, Instant receivedAt) {
+        if (id == startId(db)) return;
+
+        props.setProperty(db + ".id", Long.toString(id));
+        if (receivedAt != null) {
+            props.setProperty(db + ".received_at", receivedAt.toString());
+        }
+        dirty = true;
+    }
+
+    /**
+     * 최대 SAVE_INTERVAL_MS에 한 번만 기록
+     */
+    public synchronized void saveIfDue() throws IOException {
+        if (System.currentTimeMillis() - lastSaveMs >= SAVE_INTERVAL_MS) {
+            save();
+        }
+    }
+
+    public synchronized void save() throws IOException {
+        if (!dirty) return;
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer w = Files.newBufferedWriter(tmp)) {
+            props.store(w, "onlog backfill checkpoint");
+        }
+        Files.move(
+            tmp, file,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE
+        );
+
+        dirty = false;
+        lastSaveMs = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,274 @@
+package backfill;
+
+import kafka.AckWatermark;
+import kafka.KafkaSender;
+import kafka.SendRateLimiter;
+import model.RawLogRow;
+import sqlite.RawLogRepository;
+import sqlite.SqliteClient;
+
+import java.io.File;
+import java.sql.Connection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Backfill (parallel)
+ *
+ * - DB당 reader thread 1개 (SQLite read는 DB끼리 독립)
+ * - reader → bounded queue → sender thread (KafkaSender는 단일 thread 전용)
+ * - round마다 flush / sleep 하지 않고, 전역 rate limit로만 속도 조절
+ *
+ * queue가 차면 reader가 block → heap 사용량 = queue 용량 x batch size
+ * checkpoint는 ack된 위치만 기록 (재시작 시 DB별로 이어서)
+ *
+ * 단독 실행은 run(), combined mode는 start() 후 scheduler가 trySendBatch()로 조금씩 전송
+ * 읽기 상한: cutoffTime (received_at, backfill mode) 또는 DB별 maxId (combined mode, realtime 시작 id)
+ */
+public class ParallelBackfill {
+
+    private record Batch(String db, List<RawLogRow> rows, boolean last, Exception error) {}
+
+    // 둘 중 하나만 (maxIds == null → cutoffTime)
+    private final Instant cutoffTime;
+    private final Map<String, Long> maxIds;
+
+    private final int batchSize;
+    private final int logEvery;
+
+    private final BlockingQueue<Batch> queue;
+    private final SendRateLimiter rateLimiter;
+    private final BackfillCheckpoint checkpoint;
+
+    // sender 쪽 상태 (sender thread 전용)
+    private final List<Thread> readers = new ArrayList<>();
+    private final Map<String, AckWatermark> acks = new HashMap<>();
+    private final List<String> failed = new ArrayList<>();
+    private int running;
+    private long total;
+
+    public ParallelBackfill(
+            BackfillCheckpoint checkpoint,
+            Instant cutoffTime,
+            int batchSize,
+            int queueBatches,
+            double rowsPerSec,
+            int logEvery
+    ) {
+        this(checkpoint, cutoffTime, null, batchSize, queueBatches, rowsPerSec, logEvery);
+    }
+
+    /**
+     * @param maxIds DB 이름 → 이 id까지 (없는 DB는 0 = 읽지 않음)
+     */
+    public ParallelBackfill(
+            BackfillCheckpoint checkpoint,
+            Map<String, Long> maxIds,
+            int batchSize,
+            int queueBatches,
+            double rowsPerSec,
+            int logEvery
+    ) {
+        this(checkpoint, null, maxIds, batchSize, queueBatches, rowsPerSec, logEvery);
+    }
+
+    private ParallelBackfill(
+            BackfillCheckpoint checkpoint,
+            Instant cutoffTime,
+            Map<String, Long> maxIds,
+            int batchSize,
+            int queueBatches,
+            double rowsPerSec,
+            int logEvery
+    ) {
+        this.checkpoint = checkpoint;
+        this.cutoffTime = cutoffTime;
+        this.maxIds = maxIds;
+        this.batchSize = batchSize;
+        this.logEvery = logEvery;
+        this.queue = new ArrayBlockingQueue<>(queueBatches);
+        this.rateLimiter = new SendRateLimiter(rowsPerSec);
+    }
+
+    public void run(File[] dbFiles, KafkaSender sender) throws Exception {
+
+        start(dbFiles);
+
+        // =========================
+        // Sender loop (calling thread)
+        // =========================
+        while (!isDone()) {
+            Batch batch = queue.take();
+
+            if (!batch.last()) {
+                rateLimiter.acquire(batch.rows().size());
+            }
+            send(batch, sender);
+        }
+
+        finish(sender);
+    }
+
+    /**
+     * DB당 reader thread 시작 (전송은 run / trySendBatch에서)
+     */
+    public void start(File[] dbFiles) {
+
+        for (File db : dbFiles) {
+            String name = db.getName();
+            acks.put(name, new AckWatermark(checkpoint.startId(name), checkpoint.startAt(name)));
+
+            Thread t = new Thread(() -> read(db), "backfill-" + db.getName());
+            t.setDaemon(true);
+            readers.add(t);
+            t.start();
+            System.out.printf(
+                "[Backfill start] %s fromId=%d%n",
+                name, checkpoint.startId(name)
+            );
+        }
+
+        running = readers.size();
+    }
+
+    /**
+     * 기다리지 않고 queue의 batch 1개 전송 (combined scheduler용)
+     * - 읽어 둔 batch가 없거나 rate limit에 걸리면 아무것도 안 함
+     * @return 보낸 row 수
+     */
+    public int trySendBatch(KafkaSender sender) throws Exception {
+
+        Batch batch = queue.peek();
+        if (batch == null) return 0;
+
+        if (!batch.last() && !rateLimiter.tryAcquire(batch.rows().size())) {
+            return 0;
+        }
+
+        queue.poll();
+        return send(batch, sender);
+    }
+
+    /**
+     * 모든 reader가 끝났고 읽은 batch도 다 보냈는지
+     */
+    public boolean isDone() {
+        return running == 0;
+    }
+
+    private int send(Batch batch, KafkaSender sender) throws Exception {
+
+        if (batch.last()) {
+            running--;
+            if (batch.error() != null) {
+                failed.add(batch.db());
+                System.err.printf(
+                    "[Backfill failed] %s: %s%n",
+                    batch.db(), batch.error().getMessage()
+                );
+            }
+            return 0;
+        }
+
+        AckWatermark ack = acks.get(batch.db());
+
+        for (RawLogRow row : batch.rows()) {
+            sender.send(row, ack.track(row));
+            total++;
+
+            if (total % logEvery == 0) {
+                System.out.printf("[Backfill progress] sent=%d%n", total);
+            }
+        }
+
+        sender.flushBatches();
+
+        checkpoint.update(batch.db(), ack.committedId(), ack.committedAt());
+        checkpoint.saveIfDue();
+
+        return batch.rows().size();
+    }
+
+    /**
+     * isDone() 이후 호출: 남은 ack 대기 → checkpoint 저장
+     * @throws IllegalStateException 읽기 / 전송 실패한 DB가 있으면
+     */
+    public void finish(KafkaSender sender) throws Exception {
+
+        sender.flush();
+
+        for (Thread t : readers) {
+            t.join();
+        }
+
+        // flush 이후 → callback 전부 완료
+        for (Map.Entry<String, AckWatermark> e : acks.entrySet()) {
+            AckWatermark ack = e.getValue();
+            checkpoint.update(e.getKey(), ack.committedId(), ack.committedAt());
+
+            if (ack.failed() > 0) {
+                failed.add(e.getKey());
+                System.err.printf(
+                    "[Backfill failed] %s send errors=%d (resume from id=%d)%n",
+                    e.getKey(), ack.failed(), ack.committedId()
+                );
+            }
+        }
+        checkpoint.save();
+
+        if (!failed.isEmpty()) {
+            throw new IllegalStateException("backfill failed for " + failed);
+        }
+        System.out.printf("[Backfill] all DBs completed total=%d%n", total);
+    }
+
+    // ==================================================
+    // Reader (DB당 1 thread)
+    // ==================================================
+    private void read(File db) {
+
+        String name = db.getName();
+        Exception error = null;
+        long read = 0;
+
+        try (Connection conn = SqliteClient.connect(db.getAbsolutePath())) {
+
+            RawLogRepository repo = new RawLogRepository(conn, name);
+
+            // query 하나 = batch 하나 (batchSize row)
+            // statement를 닫아 read snapshot을 푼 뒤에 queue에 전달 (queue가 차서 block 돼도 WAL을 잡지 않음)
+            long lastId = checkpoint.startId(name);
+
+            while (true) {
+                List<RawLogRow> rows = new ArrayList<>(batchSize);
+                long n = maxIds == null
+                        ? repo.streamAfterId(lastId, cutoffTime, batchSize, rows::add)
+                        : repo.streamIdRange(lastId, maxIds.getOrDefault(name, 0L), batchSize, rows::add);
+
+                if (n == 0) break;
+
+                lastId = rows.get(rows.size() - 1).id;
+                read += n;
+                queue.put(new Batch(name, rows, false, null));
+
+                if (n < batchSize) break;
+            }
+
+            System.out.printf("[Backfill completed] %s total=%d%n", name, read);
+
+        } catch (Exception e) {
+            error = e;
+        }
+
+        try {
+            queue.put(new Batch(name, null, true, error));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package filter;
+
+import model.RawLogRow;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Edge deadband / change-only filter
+ *
+ * 규칙: deviceType:metric=deadband (콤마 구분, '*' wildcard)
+ *   예) ENV_SENSOR:TEMP=0.2,ENV_SENSOR:HUMIDITY=1.0,*:BATTERY_MV=20,*:*=0
+ *
+ * - devEui + metric 별로 마지막 전송 값과 비교
+ * - |값 - 마지막 전송 값| <= deadband 이면 skip
+ * - 숫자로 해석 불가한 payload는 "data"가 같으면 skip (change-only)
+ * - heartbeat 간격이 지나면 값이 같아도 전송 (downstream staleness 감지용)
+ * - 규칙이 없는 deviceType / metric은 항상 전송
+ *
+ * 상태는 ack 기준으로 commit
+ * - 비교 대상 = ack 대기 중인 마지막 전송 값, 없으면 마지막 ack 된 값
+ * - ack 되면 acked()로 commit, 전송 실패로 cursor를 되돌리면 rewind()로 ack 안 된 값 폐기
+ *   → 재전송 row는 실제로 전달된 값과만 비교 (실패한 row 때문에 skip되지 않음)
+ *
+ * thread-safe (accept / rewind = sender thread, acked = producer I/O thread)
+ */
+public class DeadbandFilter {
+
+    private static final double NO_RULE = -1;
+
+    /**
+     * accept()가 통과시킨 값 (ack 시 acked()로 전달)
+     */
+    public static final class Sent {
+        private final String key;
+        private final long seq;
+        private final double value;
+        private final String data;
+        private final long sentAtMs;
+
+        private Sent(String key, long seq, double value, String data, long sentAtMs) {
+            this.key = key;
+            this.seq = seq;
+            this.value = value;
+            this.data = data;
+            this.sentAtMs = sentAtMs;
+        }
+    }
+
+    // 규칙 없는 row (상태 없음, acked 불필요)
+    public static final Sent PASS = new Sent(null, 0, Double.NaN, null, 0);
+
+    private static final class Last {
+        Sent acked;     // 마지막 ack 된 값
+        Sent pending;   // ack 대기 중인 마지막 전송 값 (null = 없음)
+    }
+
+    private final Map<String, Double> rules;
+    private final long heartbeatMs;
+
+    // (deviceType:metric) → deadband, 한 번 resolve 후 cache
+    private final Map<String, Double> resolved = new HashMap<>();
+
+    // (devEui|metric) → 마지막 전송
+    private final Map<String, Last> last = new HashMap<>();
+
+    // 같은 key의 ack 순서가 뒤섞여도 최신 값만 commit
+    private long seq;
+
+    public DeadbandFilter(Map<String, Double> rules, long heartbeatMs) {
+        this.rules = rules;
+        this.heartbeatMs = heartbeatMs;
+    }
+
+    /**
+     * "ENV_SENSOR:TEMP=0.2,*:*=0" → rules
+     */
+    public static DeadbandFilter parse(String spec, long heartbeatMs) {
+        Map<String, Double> rules = new HashMap<>();
+
+        for (String part : spec.split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) continue;
+
+            int eq = part.indexOf('=');
+            if (eq < 0 || part.indexOf(':') < 0) {
+                throw new IllegalArgumentException("invalid deadband rule: " + part);
+            }
+            rules.put(
+                part.substring(0, eq).trim(),
+                Double.parseDouble(part.substring(eq + 1).trim())
+            );
+        }
+        return new DeadbandFilter(rules, heartbeatMs);
+    }
+
+    /**
+     * @return null = skip, 아니면 전송 (ack 되면 acked()에 전달, PASS는 생략 가능)
+     */
+    public synchronized Sent accept(RawLogRow row) {
+
+        double deadband = deadband(row.deviceType, row.metric);
+        if (deadband == NO_RULE || row.devEui == null) {
+            return PASS;
+        }
+
+        String data = PayloadValue.data(row);
+        double value = PayloadValue.numeric(row.metric, data);
+        long now = row.receivedAt == null
+                ? System.currentTimeMillis()
+                : row.receivedAt.toEpochMilli();
+
+        String key = row.devEui + "|" + row.metric;
+        Last state = last.computeIfAbsent(key, k -> new Last());
+        Sent prev = state.pending != null ? state.pending : state.acked;
+
+        if (prev != null
+                && now - prev.sentAtMs < heartbeatMs
+                && same(prev, value, data, deadband)) {
+            return null;
+        }
+
+        Sent sent = new Sent(key, ++seq, value, data, now);
+        state.pending = sent;
+        return sent;
+    }
+
+    /**
+     * Kafka ack (또는 spool force) 완료 → 비교 기준으로 commit
+     */
+    public synchronized void acked(Sent sent) {
+        if (sent == PASS) return;
+
+        Last state = last.get(sent.key);
+        if (state.acked == null || sent.seq > state.acked.seq) {
+            state.acked = sent;
+        }
+        if (state.pending == sent) {
+            state.pending = null;
+        }
+    }
+
+    /**
+     * cursor rewind 시 호출: ack 안 된 전송 값 폐기 (마지막 ack 된 값 기준으로 되돌림)
+     */
+    public synchronized void rewind() {
+        for (Last state : last.values()) {
+            state.pending = null;
+        }
+    }
+
+    private static boolean same(Sent prev, double value, String data, double deadband) {
+        if (!Double.isNaN(value) && !Double.isNaN(prev.value)) {
+            return Math.abs(value - prev.value) <= deadband;
+        }
+        return data != null && Objects.equals(data, prev.data);
+    }
+
+    private double deadband(String deviceType, String metric) {
+        String key = deviceType + ":" + metric;
+
+        Double d = resolved.get(key);
+        if (d == null) {
+            d = rules.get(key);
+            if (d == null) d = rules.get(deviceType + ":*");
+            if (d == null) d = rules.get("*:" + metric);
+            if (d == null) d = rules.get("*:*");
+            if (d == null) d = NO_RULE;
+            resolved.put(key, d);
+        }
+        return d;
+    }
+}
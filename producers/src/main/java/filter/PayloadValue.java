@@ -0,0 +1,51 @@
+package filter;
+
+import model.RawLogRow;
+import sqlite.DevEuiScanner;
+
+import java.util.Base64;
+
+/**
+ * deadband 비교용 값 추출 (edge에서 가볍게)
+ *
+ * - ENV (TEMP / HUMIDITY / BATTERY_MV): base64 "data" 앞 6 bytes 디코딩
+ *   (streams-parser BatteryPayloadDecoder와 같은 layout)
+ * - 그 외: 숫자로 해석하지 않음 → "data" 문자열이 바뀌었는지만 비교
+ */
+final class PayloadValue {
+
+    private static final String DATA_KEY = "\"data\"";
+
+    static String data(RawLogRow row) {
+        return DevEuiScanner.stringField(row.payload, DATA_KEY);
+    }
+
+    /**
+     * @return 숫자 값, 해석 불가면 NaN
+     */
+    static double numeric(String metric, String data) {
+        if (metric == null || data == null || data.length() < 8) {
+            return Double.NaN;
+        }
+
+        byte[] b;
+        try {
+            // 앞 8 chars = 6 bytes
+            b = Base64.getDecoder().decode(data.substring(0, 8));
+        } catch (IllegalArgumentException e) {
+            return Double.NaN;
+        }
+
+        return switch (metric) {
+            case "BATTERY_MV" ->
+                (((b[0] & 0xFF) << 8) | (b[1] & 0xFF)) & 0x3FFF;
+            case "TEMP" ->
+                (short) (((b[2] & 0xFF) << 8) | (b[3] & 0xFF)) / 100.0;
+            case "HUMIDITY" ->
+                (((b[4] & 0xFF) << 8) | (b[5] & 0xFF)) / 10.0;
+            default -> Double.NaN;
+        };
+    }
+
+    private PayloadValue() {}
+}
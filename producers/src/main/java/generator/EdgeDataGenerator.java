@@ -0,0 +1,170 @@
+package generator;
+
+import kafka.KafkaProducerFactory;
+import kafka.KafkaSender;
+import kafka.SendRateLimiter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 부하 테스트용 edge 데이터 생성기
+ *
+ *   java -cp msk-producer-1.0.0.jar generator.EdgeDataGenerator
+ *
+ * - GEN_TARGET=sqlite : raw_logs SQLite 파일 생성 (producer realtime / backfill 입력)
+ * - GEN_TARGET=kafka  : producer와 같은 envelope로 *.raw topic에 직접 전송 (GEN_KAFKA_RATE rows/sec)
+ *
+ * 같은 GEN_SEED / GEN_START 면 같은 데이터 → 반복 가능한 부하 테스트
+ */
+public class EdgeDataGenerator {
+
+    private static final long LOG_EVERY = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+
+        String target = getenvOrDefault("GEN_TARGET", "sqlite");
+        String tenant = getenvOrDefault("GEN_TENANT", "F01");
+
+        List<SyntheticUplinks.Profile> profiles = new ArrayList<>();
+        for (String p : getenvOrDefault("GEN_PROFILES", "env,scale,machine").split(",")) {
+            profiles.add(SyntheticUplinks.Profile.valueOf(p.trim().toUpperCase()));
+        }
+
+        int days = getenvInt("GEN_DAYS", 1);
+        Instant start = Instant.parse(getenvOrDefault(
+            "GEN_START",
+            Instant.now().truncatedTo(ChronoUnit.DAYS).minus(Duration.ofDays(days)).toString()
+        ));
+
+        SyntheticUplinks uplinks = new SyntheticUplinks(
+            tenant,
+            profiles,
+            getenvInt("GEN_DEVICES", 100),
+            getenvInt("GEN_LINES", 2),
+            getenvInt("GEN_INTERVAL_MS", 60_000),
+            start,
+            start.plus(Duration.ofDays(days)),
+            getenvDouble("GEN_DUPLICATE_RATIO", 0.01),
+            getenvDouble("GEN_MALFORMED_RATIO", 0.001),
+            getenvInt("GEN_SEED", 42)
+        );
+
+        System.out.printf(
+            "[Generator] target=%s tenant=%s profiles=%s from=%s days=%d uplinks=%d%n",
+            target, tenant, profiles, start, days, uplinks.expectedUplinks()
+        );
+
+        Progress progress = new Progress();
+
+        if ("kafka".equals(target)) {
+            runKafka(uplinks, progress);
+        } else if ("sqlite".equals(target)) {
+            runSqlite(uplinks, tenant, progress);
+        } else {
+            throw new IllegalArgumentException("GEN_TARGET must be 'sqlite' or 'kafka'");
+        }
+
+        progress.print("completed");
+    }
+
+    // ==================================================
+    // SQLite
+    // ==================================================
+    private static void runSqlite(SyntheticUplinks uplinks, String tenant, Progress progress) throws Exception {
+
+        Path dir = Path.of(getenv("GEN_OUT_DIR"));
+        Files.createDirectories(dir);
+
+        try (RawLogWriter writer = new RawLogWriter(
+                dir,
+                tenant,
+                getenvInt("GEN_TX_ROWS", 50_000),
+                "true".equals(getenvOrDefault("GEN_DEV_EUI_COLUMN", "false"))
+        )) {
+            uplinks.generate(row -> {
+                writer.accept(row);
+                progress.tick();
+            });
+        }
+    }
+
+    // ==================================================
+    // Kafka (producer와 같은 KafkaSender / envelope)
+    // ==================================================
+    private static void runKafka(SyntheticUplinks uplinks, Progress progress) throws Exception {
+
+        var producer = KafkaProducerFactory.create(getenv("KAFKA_BOOTSTRAP_SERVERS"));
+        var sender = new KafkaSender(producer, getenvInt("PRODUCER_MAX_IN_FLIGHT", 10_000));
+
+        int batchRows = getenvInt("PRODUCER_BATCH_ROWS", 1);
+        if (batchRows > 1) {
+            sender.enableBatching(batchRows);
+        }
+
+        // rows/sec, 0 = unlimited
+        SendRateLimiter rateLimiter = new SendRateLimiter(getenvInt("GEN_KAFKA_RATE", 0));
+
+        try {
+            uplinks.generate(row -> {
+                rateLimiter.acquire(1);
+                sender.send(row);
+                progress.tick();
+            });
+            sender.flush();
+            sender.stats().print();
+        } finally {
+            producer.close();
+        }
+    }
+
+    private static final class Progress {
+        final long startNanos = System.nanoTime();
+        long rows;
+
+        void tick() {
+            if (++rows % LOG_EVERY == 0) {
+                print("progress");
+            }
+        }
+
+        void print(String label) {
+            double sec = (System.nanoTime() - startNanos) / 1e9;
+            System.out.printf(
+                "[Generator %s] rows=%d elapsed=%.1fs (%.0f rows/s)%n",
+                label, rows, sec, rows / Math.max(sec, 1e-9)
+            );
+        }
+    }
+
+    // ==================================================
+    // Utils
+    // ==================================================
+    private static String getenv(String key) {
+        String v = System.getenv(key);
+        if (v == null || v.isEmpty()) {
+            throw new RuntimeException(key + " not set");
+        }
+        return v;
+    }
+
+    private static String getenvOrDefault(String key, String def) {
+        String v = System.getenv(key);
+        return (v == null || v.isEmpty()) ? def : v;
+    }
+
+    private static int getenvInt(String key, int def) {
+        String v = System.getenv(key);
+        return (v == null || v.isEmpty()) ? def : Integer.parseInt(v);
+    }
+
+    private static double getenvDouble(String key, double def) {
+        String v = System.getenv(key);
+        return (v == null || v.isEmpty()) ? def : Double.parseDouble(v);
+    }
+}
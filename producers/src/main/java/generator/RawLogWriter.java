@@ -0,0 +1,144 @@
+package generator;
+
+import model.RawLogRow;
+import sqlite.RowHandler;
+import sqlite.SqliteClient;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * raw_logs SQLite writer (edge DB와 같은 schema / 파일 이름)
+ *
+ * - profile당 파일 1개: {tenant}_{profile.file}.sqlite
+ * - executeBatch + txRows 단위 commit (row당 transaction 없음)
+ * - WAL, synchronous=NORMAL
+ */
+public class RawLogWriter implements RowHandler, AutoCloseable {
+
+    private static final int BATCH_ROWS = 1_000;
+
+    // edge와 같은 고정 길이 (문자열 비교 = 시간 비교)
+    private static final DateTimeFormatter RECEIVED_AT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    private static final class DbFile {
+        final Connection conn;
+        final PreparedStatement insert;
+        int batched;
+        int uncommitted;
+
+        DbFile(Connection conn, PreparedStatement insert) {
+            this.conn = conn;
+            this.insert = insert;
+        }
+    }
+
+    private final Path dir;
+    private final String tenant;
+    private final int txRows;
+    private final boolean devEuiColumn;
+
+    private final Map<SyntheticUplinks.Profile, DbFile> files =
+            new EnumMap<>(SyntheticUplinks.Profile.class);
+
+    /**
+     * @param devEuiColumn dev_eui 컬럼 추가 (신규 edge schema, payload 스캔 생략 경로 테스트용)
+     */
+    public RawLogWriter(Path dir, String tenant, int txRows, boolean devEuiColumn) {
+        this.dir = dir;
+        this.tenant = tenant;
+        this.txRows = txRows;
+        this.devEuiColumn = devEuiColumn;
+    }
+
+    @Override
+    public void accept(RawLogRow row) throws Exception {
+
+        DbFile f = file(SyntheticUplinks.Profile.ofTopic(row.topic));
+        PreparedStatement ps = f.insert;
+
+        ps.setString(1, RECEIVED_AT.format(row.receivedAt));
+        ps.setString(2, row.topic);
+        ps.setString(3, row.tenantId);
+        ps.setString(4, row.lineId);
+        ps.setString(5, row.process);
+        ps.setString(6, row.deviceType);
+        ps.setString(7, row.metric);
+        ps.setString(8, row.payload);
+        if (devEuiColumn) {
+            ps.setString(9, row.devEui);
+        }
+        ps.addBatch();
+
+        if (++f.batched == BATCH_ROWS) {
+            ps.executeBatch();
+            f.batched = 0;
+        }
+        if (++f.uncommitted == txRows) {
+            ps.executeBatch();
+            f.batched = 0;
+            f.conn.commit();
+            f.uncommitted = 0;
+        }
+    }
+
+    private DbFile file(SyntheticUplinks.Profile profile) throws Exception {
+        DbFile f = files.get(profile);
+        if (f != null) return f;
+
+        Path path = dir.resolve(tenant + "_" + profile.file + ".sqlite");
+        Connection conn = SqliteClient.connect(path.toString());
+
+        try (Statement st = conn.createStatement()) {
+            st.execute("PRAGMA journal_mode=WAL");
+            st.execute("PRAGMA synchronous=NORMAL");
+            st.execute("""
+                CREATE TABLE IF NOT EXISTS raw_logs (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    received_at TEXT,
+                    topic TEXT,
+                    tenant_id TEXT,
+                    line_id TEXT,
+                    process TEXT,
+                    device_type TEXT,
+                    metric TEXT,
+                    payload TEXT"""
+                + (devEuiColumn ? ",\n    dev_eui TEXT" : "")
+                + ")"
+            );
+            st.execute("CREATE INDEX IF NOT EXISTS idx_raw_logs_received_at ON raw_logs(received_at)");
+        }
+        conn.setAutoCommit(false);
+
+        PreparedStatement insert = conn.prepareStatement(
+            "INSERT INTO raw_logs (received_at, topic, tenant_id, line_id, process, device_type, metric, payload"
+                + (devEuiColumn ? ", dev_eui) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)"
+                                : ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)")
+        );
+
+        f = new DbFile(conn, insert);
+        files.put(profile, f);
+
+        System.out.println("[Generator] writing " + path);
+        return f;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        for (DbFile f : files.values()) {
+            f.insert.executeBatch();
+            f.conn.commit();
+            f.insert.close();
+            f.conn.close();
+        }
+        files.clear();
+    }
+}
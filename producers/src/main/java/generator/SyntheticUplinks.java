@@ -0,0 +1,319 @@
+package generator;
+
+import model.RawLogRow;
+import sqlite.RowHandler;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * 가짜 edge uplink → raw_logs row
+ *
+ * - device마다 고정 metric, fCnt 1씩 증가 (parser dedup key = devEui:fCnt)
+ * - payload = ChirpStack v4 uplink JSON, "data"는 parser가 디코딩하는 byte layout
+ * - 같은 seed / 설정이면 같은 row 순서 (received_at 오름차순, 중복 row 제외)
+ *
+ * 중복: 같은 uplink를 수 ms ~ 2s 뒤에 다시 (gateway 중복 수신)
+ * 불량: JSON 잘림 / base64 깨짐 / deviceInfo 누락 중 하나
+ */
+public class SyntheticUplinks {
+
+    /**
+     * edge SQLite 파일 하나 = profile 하나
+     */
+    public enum Profile {
+        ENV("sensor_env", "sensor.env.raw", "ENV", "EM300-TH", 85),
+        SCALE("sensor_scale", "sensor.scale.raw", "QC", "LOAD-CELL", 10),
+        MACHINE("machine", "machine.raw", "MACHINE", "DI-STATE", 20);
+
+        public final String file;
+        public final String topic;
+        final String process;
+        final String deviceProfile;
+        final int fPort;
+
+        Profile(String file, String topic, String process, String deviceProfile, int fPort) {
+            this.file = file;
+            this.topic = topic;
+            this.process = process;
+            this.deviceProfile = deviceProfile;
+            this.fPort = fPort;
+        }
+
+        public static Profile ofTopic(String topic) {
+            for (Profile p : values()) {
+                if (p.topic.equals(topic)) return p;
+            }
+            throw new IllegalArgumentException("unknown topic: " + topic);
+        }
+    }
+
+    private static final String[] ENV_METRICS = {"TEMP", "HUMIDITY", "BATTERY_MV"};
+    private static final String[] SCALE_TYPES = {"PACK_SCALE", "UNIT_SCALE"};
+
+    private static final class Device {
+        final Profile profile;
+        final String devEui;
+        final String deviceName;
+        final String lineId;
+        final String deviceType;
+        final String metric;
+        final String devAddr;
+
+        // slot 안에서의 송신 시점 (device끼리 겹치지 않게 분산)
+        final long offsetMs;
+
+        int fCnt;
+        double temperature = 24;
+        double humidity = 50;
+        int batteryMv = 3_600;
+        int machineState = 1;
+
+        Device(Profile profile, int index, int lines, String tenant, long offsetMs, SplittableRandom rnd) {
+            this.profile = profile;
+            this.lineId = String.format("L%02d", index % lines + 1);
+            this.devEui = String.format("a84041%02x%08x", profile.ordinal(), index);
+            this.devAddr = String.format("%08x", rnd.nextInt());
+            this.offsetMs = offsetMs;
+            this.fCnt = rnd.nextInt(1_000);
+
+            switch (profile) {
+                case ENV -> {
+                    deviceType = "ENV_SENSOR";
+                    metric = ENV_METRICS[index % ENV_METRICS.length];
+                }
+                case SCALE -> {
+                    deviceType = SCALE_TYPES[index % SCALE_TYPES.length];
+                    metric = "WEIGHT";
+                }
+                default -> {
+                    deviceType = "MACHINE";
+                    metric = "STATE";
+                }
+            }
+
+            this.deviceName = String.format(
+                "%s-%s-%s-%03d", tenant, lineId, profile.process, index
+            );
+        }
+    }
+
+    private final String tenant;
+    private final List<Device> devices = new ArrayList<>();
+    private final long intervalMs;
+    private final Instant start;
+    private final Instant end;
+    private final double duplicateRatio;
+    private final double malformedRatio;
+    private final SplittableRandom rnd;
+
+    /**
+     * @param devicesPerProfile profile(= DB 파일)당 device 수
+     * @param intervalMs        device별 uplink 주기
+     */
+    public SyntheticUplinks(
+            String tenant,
+            List<Profile> profiles,
+            int devicesPerProfile,
+            int lines,
+            long intervalMs,
+            Instant start,
+            Instant end,
+            double duplicateRatio,
+            double malformedRatio,
+            long seed
+    ) {
+        this.tenant = tenant;
+        this.intervalMs = intervalMs;
+        this.start = start;
+        this.end = end;
+        this.duplicateRatio = duplicateRatio;
+        this.malformedRatio = malformedRatio;
+        this.rnd = new SplittableRandom(seed);
+
+        // slot 안 offset 순으로 정렬 → received_at 오름차순 유지
+        int total = profiles.size() * devicesPerProfile;
+        int n = 0;
+        for (int i = 0; i < devicesPerProfile; i++) {
+            for (Profile p : profiles) {
+                long offset = intervalMs * n++ / total;
+                devices.add(new Device(p, i, lines, tenant, offset, rnd));
+            }
+        }
+    }
+
+    /**
+     * 생성 예정 uplink 수 (중복 row 제외)
+     */
+    public long expectedUplinks() {
+        long slots = (end.toEpochMilli() - start.toEpochMilli() + intervalMs - 1) / intervalMs;
+        return slots * devices.size();
+    }
+
+    /**
+     * start ~ end 의 모든 uplink를 시간 순서대로 out에 전달
+     * @return 전달한 row 수 (중복 포함)
+     */
+    public long generate(RowHandler out) throws Exception {
+
+        long endMs = end.toEpochMilli();
+        long rows = 0;
+
+        for (long slot = start.toEpochMilli(); slot < endMs; slot += intervalMs) {
+            for (Device d : devices) {
+
+                long receivedAtMs = slot + d.offsetMs;
+                if (receivedAtMs >= endMs) continue;
+
+                RawLogRow row = uplink(d, receivedAtMs);
+                out.accept(row);
+                rows++;
+
+                if (rnd.nextDouble() < duplicateRatio) {
+                    out.accept(duplicateOf(row));
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    // ==================================================
+    // Row / payload
+    // ==================================================
+    private RawLogRow uplink(Device d, long receivedAtMs) {
+
+        d.fCnt++;
+
+        RawLogRow r = new RawLogRow();
+        r.receivedAt = Instant.ofEpochMilli(receivedAtMs);
+        r.topic = d.profile.topic;
+        r.tenantId = tenant;
+        r.lineId = d.lineId;
+        r.process = d.profile.process;
+        r.deviceType = d.deviceType;
+        r.metric = d.metric;
+        r.devEui = d.devEui;
+
+        // network server 시각 = edge 수신보다 조금 이전
+        Instant eventTime = Instant.ofEpochMilli(receivedAtMs - 20 - rnd.nextInt(500));
+        String data = Base64.getEncoder().encodeToString(nextData(d));
+
+        String payload = payload(d, eventTime, data);
+
+        if (rnd.nextDouble() < malformedRatio) {
+            payload = malformed(d, eventTime, payload);
+        }
+
+        r.payload = payload;
+        return r;
+    }
+
+    private static RawLogRow duplicateOf(RawLogRow r) {
+        RawLogRow dup = new RawLogRow();
+        dup.receivedAt = r.receivedAt.plusMillis(5 + (r.payload.length() * 31L) % 2_000);
+        dup.topic = r.topic;
+        dup.tenantId = r.tenantId;
+        dup.lineId = r.lineId;
+        dup.process = r.process;
+        dup.deviceType = r.deviceType;
+        dup.metric = r.metric;
+        dup.devEui = r.devEui;
+        dup.payload = r.payload;
+        return dup;
+    }
+
+    /**
+     * streams-parser 디코더와 같은 layout
+     * - ENV    : [status(2bit)|battery mV(14bit)] [temp int16 /100] [humidity uint16 /10]
+     * - SCALE  : weight int32 (0.01 g)
+     * - MACHINE: state 1 byte (0 IDLE / 1 RUNNING / 2 ERROR)
+     */
+    private byte[] nextData(Device d) {
+        switch (d.profile) {
+            case ENV -> {
+                d.temperature = clamp(d.temperature + gaussian() * 0.05, 15, 35);
+                d.humidity = clamp(d.humidity + gaussian() * 0.2, 20, 90);
+                if (rnd.nextInt(200) == 0) d.batteryMv = Math.max(2_900, d.batteryMv - 1);
+
+                int status = d.batteryMv >= 3_400 ? 0b11
+                           : d.batteryMv >= 3_200 ? 0b10
+                           : d.batteryMv >= 3_000 ? 0b01
+                           : 0b00;
+                int bat = (status << 14) | (d.batteryMv & 0x3FFF);
+                int temp = (int) Math.round(d.temperature * 100);
+                int hum = (int) Math.round(d.humidity * 10);
+
+                return new byte[] {
+                    (byte) (bat >> 8), (byte) bat,
+                    (byte) (temp >> 8), (byte) temp,
+                    (byte) (hum >> 8), (byte) hum
+                };
+            }
+            case SCALE -> {
+                // yield 기준 (13 ~ 15 g) 주변, 가끔 벗어남
+                int w = (int) Math.round((14.0 + gaussian() * 0.6) * 100);
+                return new byte[] {
+                    (byte) (w >> 24), (byte) (w >> 16), (byte) (w >> 8), (byte) w
+                };
+            }
+            default -> {
+                // 대부분 RUNNING 유지, 가끔 전이
+                int p = rnd.nextInt(100);
+                if (p < 3) d.machineState = 0;
+                else if (p < 4) d.machineState = 2;
+                else if (p < 15) d.machineState = 1;
+                return new byte[] {(byte) d.machineState};
+            }
+        }
+    }
+
+    private String payload(Device d, Instant eventTime, String data) {
+        UUID dedupId = new UUID(rnd.nextLong(), rnd.nextLong());
+        String time = eventTime.toString();
+
+        return "{\"deduplicationId\":\"" + dedupId + "\","
+            + "\"time\":\"" + time + "\","
+            + "\"deviceInfo\":{\"tenantId\":\"" + tenant + "\",\"tenantName\":\"OnLog\","
+            + "\"applicationName\":\"factory-" + d.profile.file + "\","
+            + "\"deviceProfileName\":\"" + d.profile.deviceProfile + "\","
+            + "\"deviceName\":\"" + d.deviceName + "\","
+            + "\"devEui\":\"" + d.devEui + "\",\"deviceClassEnabled\":\"CLASS_A\","
+            + "\"tags\":{\"line\":\"" + d.lineId + "\",\"process\":\"" + d.profile.process + "\"}},"
+            + "\"devAddr\":\"" + d.devAddr + "\",\"adr\":true,\"dr\":5,"
+            + "\"fCnt\":" + d.fCnt + ",\"fPort\":" + d.profile.fPort + ",\"confirmed\":false,"
+            + "\"data\":\"" + data + "\","
+            + "\"rxInfo\":[{\"gatewayId\":\"24e124fffef4ad2c\",\"uplinkId\":" + rnd.nextInt(65_536) + ","
+            + "\"nsTime\":\"" + time + "\","
+            + "\"rssi\":" + (-60 - rnd.nextInt(50)) + ",\"snr\":" + (rnd.nextInt(40) / 4.0) + ","
+            + "\"channel\":" + rnd.nextInt(8) + ",\"rfChain\":1,\"crcStatus\":\"CRC_OK\"}],"
+            + "\"txInfo\":{\"frequency\":922500000,\"modulation\":{\"lora\":{\"bandwidth\":125000,"
+            + "\"spreadingFactor\":7,\"codeRate\":\"CR_4_5\"}}}}";
+    }
+
+    private String malformed(Device d, Instant eventTime, String payload) {
+        return switch (rnd.nextInt(3)) {
+            // 전송 중 잘린 JSON
+            case 0 -> payload.substring(0, payload.length() / 2);
+            // base64가 아닌 data
+            case 1 -> payload(d, eventTime, "%%corrupted%%");
+            // deviceInfo 누락
+            default -> "{\"time\":\"" + eventTime + "\",\"fCnt\":" + d.fCnt + ",\"data\":\"\"}";
+        };
+    }
+
+    private double gaussian() {
+        // SplittableRandom에는 nextGaussian이 없음 (Java 17) → 12개 합 근사
+        double sum = 0;
+        for (int i = 0; i < 12; i++) sum += rnd.nextDouble();
+        return sum - 6;
+    }
+
+    private static double clamp(double v, double min, double max) {
+        return Math.max(min, Math.min(max, v));
+    }
+}
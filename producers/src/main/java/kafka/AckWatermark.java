@@ -0,0 +1,111 @@
+package kafka;
+
+import model.RawLogRow;
+import org.apache.kafka.clients.producer.Callback;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+
+/**
+ * DB 하나의 전송 순서대로 ack 추적
+ *
+ * partition이 달라 ack 순서가 뒤섞여도,
+ * "앞의 row가 전부 ack된" 마지막 row까지만 commit 위치로 인정
+ * → 실패한 row가 있으면 그 직전에서 멈춤 (재시작 / rewind 시 거기서부터 다시)
+ */
+public class AckWatermark {
+
+    private static final class Entry {
+        final long id;
+        final Instant receivedAt;
+        final int generation;
+        boolean acked;
+
+        Entry(long id, Instant receivedAt, int generation) {
+            this.id = id;
+            this.receivedAt = receivedAt;
+            this.generation = generation;
+        }
+    }
+
+    private final ArrayDeque<Entry> pending = new ArrayDeque<>();
+
+    private long committedId;
+    private Instant committedAt;
+    private long failed;
+    private boolean failedSinceRewind;
+
+    // rewind 이전에 보낸 row의 callback은 무시
+    private int generation;
+
+    public AckWatermark(long committedId, Instant committedAt) {
+        this.committedId = committedId;
+        this.committedAt = committedAt;
+    }
+
+    /**
+     * send 직전 호출 (전송 순서 = 호출 순서)
+     * @return producer.send에 넘길 callback
+     */
+    public synchronized Callback track(RawLogRow row) {
+        Entry e = new Entry(row.id, row.receivedAt, generation);
+        pending.addLast(e);
+        return (meta, ex) -> complete(e, ex);
+    }
+
+    private synchronized void complete(Entry e, Exception ex) {
+        if (ex != null) {
+            failed++;
+        }
+
+        if (e.generation != generation) return;
+
+        if (ex != null) {
+            failedSinceRewind = true;
+            return;
+        }
+
+        e.acked = true;
+
+        while (!pending.isEmpty() && pending.peekFirst().acked) {
+            Entry head = pending.pollFirst();
+            committedId = head.id;
+            committedAt = head.receivedAt;
+        }
+    }
+
+    public synchronized long committedId() {
+        return committedId;
+    }
+
+    public synchronized Instant committedAt() {
+        return committedAt;
+    }
+
+    public synchronized long failed() {
+        return failed;
+    }
+
+    /**
+     * 아직 ack 안 된 가장 오래된 row의 received_at (없으면 null)
+     */
+    public synchronized Instant oldestPendingAt() {
+        Entry head = pending.peekFirst();
+        return head == null ? null : head.receivedAt;
+    }
+
+    public synchronized boolean hasFailure() {
+        return failedSinceRewind;
+    }
+
+    /**
+     * 실패 이후 재전송용: 추적 중인 row를 버리고 commit 위치 반환
+     * (호출자는 reader cursor를 이 id로 되돌림 → 중복은 parser dedup이 흡수)
+     */
+    public synchronized long rewind() {
+        pending.clear();
+        failedSinceRewind = false;
+        generation++;
+        return committedId;
+    }
+}
@@ -0,0 +1,449 @@
+package kafka;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.utils.ByteBufferUnmapper;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Store-and-forward spool (broker 장애 / 지연 시 로컬 디스크에 보관)
+ *
+ * - append-only segment 파일 (mmap), 이름 = 순번 (00000000000000000001.spool)
+ *   기존 파일은 실제 길이로 map (segmentBytes보다 크면 그대로), 다 읽은 segment는 unmap 후 삭제
+ * - record = [int len][int crc32][body]
+ *   body v2 = [short -2][short topicLen][topic][short keyLen | -1][key][long timestamp | -1]
+ *             [short headerCount]([short keyLen][key][int valueLen | -1][value])*[value]
+ *   body v1 = [short topicLen][topic][short keyLen | -1][key][value] (이전 버전, 읽기만)
+ *   len == 0 → segment 끝 (새 파일은 0으로 채워져 있음)
+ * - 읽기 위치는 spool.pos 에 기록 → 재시작 시 이어서 drain (중복은 parser dedup이 흡수)
+ * - 기록 후 force() 전까지는 디스크에 있다고 보장 안 됨 (ack는 force 이후에)
+ * - 전체 크기가 maxBytes에 닿으면 삭제하지 않고 drain이 segment를 비울 때까지 append 대기
+ *   (spool에 들어간 record는 이미 ack 된 것 → 버리면 유실)
+ *
+ * thread-safe (sender thread append / drain thread peek·commit)
+ * close() 이후에는 mapping이 해제됨 → append / commit은 IOException, peek는 빈 결과
+ */
+public class DiskSpool implements AutoCloseable {
+
+    /**
+     * @param timestamp null = 없음 (v1 record)
+     */
+    public record Record(String topic, String key, Long timestamp, Header[] headers, byte[] value) {}
+
+    private static final String SUFFIX = ".spool";
+    private static final int HEADER = 8;   // len + crc
+
+    // body 첫 short (v1은 topicLen >= 0)
+    private static final short FORMAT_V2 = -2;
+
+    private static final Header[] NO_HEADERS = new Header[0];
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final long maxBytes;
+
+    // seq → mapping (열려있는 segment만)
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+
+    private long writeSeq;
+    private int writeOffset;
+
+    private long readSeq;
+    private int readOffset;
+
+    // peek 이후 commit 시 이동할 위치
+    private long peekSeq;
+    private int peekOffset;
+
+    private long fullStalls;
+    private boolean closed;
+
+    public DiskSpool(Path dir, long segmentBytes, long maxBytes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+
+        Files.createDirectories(dir);
+        recover();
+    }
+
+    // ==================================================
+    // Write
+    // ==================================================
+    /**
+     * spool이 가득 차 있으면 drain이 공간을 비울 때까지 대기
+     *
+     * @param timestamp null = 없음
+     */
+    public synchronized void append(String topic, String key, Long timestamp,
+                                    Iterable<Header> headers, byte[] value) throws IOException {
+
+        byte[] t = topic.getBytes(StandardCharsets.UTF_8);
+        byte[] k = key == null ? null : key.getBytes(StandardCharsets.UTF_8);
+
+        List<byte[]> h = new ArrayList<>();
+        int headerLen = 2;
+        if (headers != null) {
+            for (Header header : headers) {
+                byte[] hk = header.key().getBytes(StandardCharsets.UTF_8);
+                byte[] hv = header.value();
+                h.add(hk);
+                h.add(hv);
+                headerLen += 2 + hk.length + 4 + (hv == null ? 0 : hv.length);
+            }
+        }
+
+        int len = 2 + 2 + t.length + 2 + (k == null ? 0 : k.length) + 8 + headerLen + value.length;
+
+        if (HEADER + len > segmentBytes) {
+            throw new IOException("record too large for spool segment: " + len);
+        }
+
+        ensureOpen();
+
+        if (writeOffset + HEADER + len > segments.get(writeSeq).capacity()) {
+            awaitSpace();
+            roll();
+        }
+
+        MappedByteBuffer buf = segments.get(writeSeq);
+
+        int body = writeOffset + HEADER;
+        buf.position(body);
+        buf.putShort(FORMAT_V2);
+        buf.putShort((short) t.length).put(t);
+        if (k == null) {
+            buf.putShort((short) -1);
+        } else {
+            buf.putShort((short) k.length).put(k);
+        }
+        buf.putLong(timestamp == null ? -1L : timestamp);
+        buf.putShort((short) (h.size() / 2));
+        for (int i = 0; i < h.size(); i += 2) {
+            byte[] hk = h.get(i);
+            byte[] hv = h.get(i + 1);
+            buf.putShort((short) hk.length).put(hk);
+            if (hv == null) {
+                buf.putInt(-1);
+            } else {
+                buf.putInt(hv.length).put(hv);
+            }
+        }
+        buf.put(value);
+
+        // len은 마지막에 기록 (crash 시 반쯤 쓴 record는 len == 0 → 무시)
+        buf.putInt(writeOffset + 4, crc(buf, body, len));
+        buf.putInt(writeOffset, len);
+
+        writeOffset += HEADER + len;
+    }
+
+    private void roll() throws IOException {
+        segments.get(writeSeq).force();
+
+        writeSeq++;
+        writeOffset = 0;
+        segments.put(writeSeq, map(writeSeq, true));
+    }
+
+    /**
+     * segment 하나 더 만들면 maxBytes 초과 → commit()이 segment를 지울 때까지 대기
+     * (최소 2개 = 읽는 segment + 쓰는 segment는 허용)
+     */
+    private void awaitSpace() throws IOException {
+        if (!isFull()) {
+            return;
+        }
+
+        fullStalls++;
+        System.err.printf(
+            "[Spool] size limit reached (%d bytes), waiting for drain (stalls=%d)%n",
+            sizeBytes(), fullStalls
+        );
+
+        try {
+            while (isFull()) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while spool is full");
+        }
+        ensureOpen();
+    }
+
+    private boolean isFull() {
+        return segments.size() > 1 && sizeBytes() + segmentBytes > maxBytes;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("spool closed");
+        }
+    }
+
+    // ==================================================
+    // Read (drain)
+    // ==================================================
+    public synchronized boolean isEmpty() {
+        return readSeq == writeSeq && readOffset == writeOffset;
+    }
+
+    /**
+     * 읽기 위치부터 최대 max개 (위치는 commit() 전까지 그대로)
+     */
+    public synchronized List<Record> peek(int max) {
+
+        List<Record> out = new ArrayList<>();
+        if (closed) {
+            return out;
+        }
+
+        long seq = readSeq;
+        int offset = readOffset;
+
+        while (out.size() < max) {
+
+            if (seq == writeSeq && offset >= writeOffset) break;
+
+            MappedByteBuffer buf = segments.get(seq);
+            int len = (buf == null || offset + HEADER > buf.capacity()) ? 0 : buf.getInt(offset);
+
+            if (len == 0) {
+                // sealed segment 끝 → 다음 segment
+                seq++;
+                offset = 0;
+                continue;
+            }
+
+            out.add(read(buf, offset + HEADER, len));
+            offset += HEADER + len;
+        }
+
+        peekSeq = seq;
+        peekOffset = offset;
+        return out;
+    }
+
+    /**
+     * 마지막 peek 결과가 전부 Kafka ack → 읽기 위치 전진, 다 읽은 segment 삭제
+     */
+    public synchronized void commit() throws IOException {
+        ensureOpen();
+
+        readSeq = peekSeq;
+        readOffset = peekOffset;
+
+        // mapping이 남아있으면 삭제해도 디스크 공간이 GC 전까지 반환되지 않음 → unmap 먼저
+        while (!segments.isEmpty() && segments.firstKey() < readSeq) {
+            var done = segments.pollFirstEntry();
+            Path path = segmentPath(done.getKey());
+            ByteBufferUnmapper.unmap(path.toString(), done.getValue());
+            Files.deleteIfExists(path);
+        }
+        notifyAll();
+
+        Path pos = dir.resolve("spool.pos");
+        Path tmp = dir.resolve("spool.pos.tmp");
+        Files.writeString(tmp, readSeq + " " + readOffset);
+        Files.move(tmp, pos, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Record read(MappedByteBuffer buf, int body, int len) {
+        MappedByteBuffer b = buf.duplicate();
+        b.position(body);
+
+        short first = b.getShort();
+        boolean v2 = first == FORMAT_V2;
+
+        byte[] t = new byte[v2 ? b.getShort() : first];
+        b.get(t);
+
+        short kl = b.getShort();
+        byte[] k = null;
+        if (kl >= 0) {
+            k = new byte[kl];
+            b.get(k);
+        }
+
+        Long timestamp = null;
+        Header[] headers = NO_HEADERS;
+        if (v2) {
+            long ts = b.getLong();
+            timestamp = ts < 0 ? null : ts;
+
+            headers = new Header[b.getShort()];
+            for (int i = 0; i < headers.length; i++) {
+                byte[] hk = new byte[b.getShort()];
+                b.get(hk);
+                int hl = b.getInt();
+                byte[] hv = null;
+                if (hl >= 0) {
+                    hv = new byte[hl];
+                    b.get(hv);
+                }
+                headers[i] = new RecordHeader(new String(hk, StandardCharsets.UTF_8), hv);
+            }
+        }
+
+        byte[] v = new byte[body + len - b.position()];
+        b.get(v);
+
+        return new Record(
+            new String(t, StandardCharsets.UTF_8),
+            k == null ? null : new String(k, StandardCharsets.UTF_8),
+            timestamp,
+            headers,
+            v
+        );
+    }
+
+    // ==================================================
+    // Status
+    // ==================================================
+    public synchronized long sizeBytes() {
+        long size = 0;
+        for (MappedByteBuffer buf : segments.values()) {
+            size += buf.capacity();
+        }
+        return size;
+    }
+
+    public synchronized long fullStalls() {
+        return fullStalls;
+    }
+
+    /**
+     * 지금까지 append 한 record를 디스크에 반영 (이전 segment는 roll 시 force 됨)
+     */
+    public synchronized void force() {
+        if (closed) return;
+
+        MappedByteBuffer buf = segments.get(writeSeq);
+        if (buf != null) buf.force();
+    }
+
+    /**
+     * force 후 모든 mapping 해제 (drain / sync thread가 남아있어도 해제된 buffer는 안 건드림)
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+
+        force();
+        closed = true;
+
+        for (var e : segments.entrySet()) {
+            try {
+                ByteBufferUnmapper.unmap(segmentPath(e.getKey()).toString(), e.getValue());
+            } catch (IOException ex) {
+                System.err.println("[Spool] unmap failed: " + ex.getMessage());
+            }
+        }
+        segments.clear();
+        notifyAll();
+    }
+
+    // ==================================================
+    // Recovery
+    // ==================================================
+    private void recover() throws IOException {
+
+        List<Long> seqs = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(p -> p.getFileName().toString())
+                 .filter(n -> n.endsWith(SUFFIX))
+                 .forEach(n -> seqs.add(Long.parseLong(n.substring(0, n.length() - SUFFIX.length()))));
+        }
+        seqs.sort(null);
+
+        if (seqs.isEmpty()) {
+            writeSeq = 1;
+            segments.put(writeSeq, map(writeSeq, true));
+        } else {
+            for (long seq : seqs) {
+                segments.put(seq, map(seq, false));
+            }
+            writeSeq = seqs.get(seqs.size() - 1);
+        }
+
+        // 마지막 segment: 유효한 record 끝까지 = write 위치
+        writeOffset = scanEnd(segments.get(writeSeq));
+
+        // 읽기 위치
+        readSeq = segments.firstKey();
+        readOffset = 0;
+
+        Path pos = dir.resolve("spool.pos");
+        if (Files.exists(pos)) {
+            String[] p = Files.readString(pos).trim().split(" ");
+            long seq = Long.parseLong(p[0]);
+            if (segments.containsKey(seq)) {
+                readSeq = seq;
+                readOffset = Integer.parseInt(p[1]);
+            }
+        }
+
+        peekSeq = readSeq;
+        peekOffset = readOffset;
+
+        if (!isEmpty()) {
+            System.out.printf(
+                "[Spool] recovered %s (segments=%d, read=%d:%d, write=%d:%d)%n",
+                dir, segments.size(), readSeq, readOffset, writeSeq, writeOffset
+            );
+        }
+    }
+
+    private int scanEnd(MappedByteBuffer buf) {
+        int offset = 0;
+        while (offset + HEADER <= buf.capacity()) {
+            int len = buf.getInt(offset);
+            if (len <= 0 || offset + HEADER + len > buf.capacity()) break;
+            if (crc(buf, offset + HEADER, len) != buf.getInt(offset + 4)) break;
+            offset += HEADER + len;
+        }
+        return offset;
+    }
+
+    /**
+     * 새 segment = segmentBytes, 기존 파일 = 실제 길이 (SPOOL_SEGMENT_BYTES를 줄여도 뒷부분 record 유지)
+     * segmentBytes보다 짧은 기존 파일은 0으로 채워 늘림 (len == 0 → segment 끝)
+     */
+    private MappedByteBuffer map(long seq, boolean create) throws IOException {
+        try (RandomAccessFile f = new RandomAccessFile(segmentPath(seq).toFile(), "rw")) {
+            long size = create ? segmentBytes : Math.max(f.length(), segmentBytes);
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("spool segment too large: " + segmentPath(seq) + " (" + size + " bytes)");
+            }
+            if (f.length() != size) {
+                f.setLength(size);
+            }
+            return f.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private Path segmentPath(long seq) {
+        return dir.resolve(String.format("%020d%s", seq, SUFFIX));
+    }
+
+    private static int crc(MappedByteBuffer buf, int offset, int len) {
+        CRC32 crc = new CRC32();
+        crc.update(buf.slice(offset, len));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,229 @@
+package kafka;
+
+import model.RawLogRow;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * RawLogRow → envelope JSON (compact, UTF-8)
+ *
+ * {"received_at":"...","tenant_id":"...","line_id":"...","process":"...",
+ *  "device_type":"...","metric":"...","payload":{...}}
+ *
+ * - String.format / StringSerializer 없이 내부 byte buffer에 직접 기록
+ * - buffer는 재사용 (thread-safe 아님 → sender thread 전용)
+ * - payload는 원본 JSON 그대로 삽입 (기존 포맷 유지)
+ *
+ * batch envelope (같은 DB / device / routing 의 N rows → record 1개):
+ *
+ * {"received_at":"(첫 row)","tenant_id":"...","line_id":"...","process":"...",
+ *  "device_type":"...","metric":"...",
+ *  "rows":[{"received_at":"...","payload":{...}}, ...]}
+ *
+ * - JSON 문법이 깨진 payload는 문자열로 삽입 ("payload":"{\"fCnt\":1,...")
+ *   → parser가 그 row만 PARSE_FAILED (DLQ), 같은 batch의 나머지 row는 정상 처리
+ */
+public class EnvelopeEncoder {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private byte[] buf = new byte[1024];
+    private int pos;
+
+    public byte[] encode(RawLogRow row) {
+        pos = 0;
+
+        writeAscii("{\"received_at\":");
+        writeInstant(row.receivedAt);
+
+        writeAscii(",\"tenant_id\":");
+        writeString(row.tenantId);
+
+        writeAscii(",\"line_id\":");
+        writeString(row.lineId);
+
+        writeAscii(",\"process\":");
+        writeString(row.process);
+
+        writeAscii(",\"device_type\":");
+        writeString(row.deviceType);
+
+        writeAscii(",\"metric\":");
+        writeString(row.metric);
+
+        writeAscii(",\"payload\":");
+        writeRawJson(row.payload);
+
+        writeByte('}');
+
+        return Arrays.copyOf(buf, pos);
+    }
+
+    /**
+     * routing 필드가 모두 같은 rows → batch envelope
+     */
+    public byte[] encodeBatch(List<RawLogRow> rows) {
+        pos = 0;
+
+        RawLogRow first = rows.get(0);
+
+        writeAscii("{\"received_at\":");
+        writeInstant(first.receivedAt);
+
+        writeAscii(",\"tenant_id\":");
+        writeString(first.tenantId);
+
+        writeAscii(",\"line_id\":");
+        writeString(first.lineId);
+
+        writeAscii(",\"process\":");
+        writeString(first.process);
+
+        writeAscii(",\"device_type\":");
+        writeString(first.deviceType);
+
+        writeAscii(",\"metric\":");
+        writeString(first.metric);
+
+        writeAscii(",\"rows\":[");
+        for (int i = 0; i < rows.size(); i++) {
+            RawLogRow row = rows.get(i);
+
+            if (i > 0) writeByte(',');
+
+            writeAscii("{\"received_at\":");
+            writeInstant(row.receivedAt);
+
+            writeAscii(",\"payload\":");
+            writeBatchPayload(row.payload);
+
+            writeByte('}');
+        }
+        writeAscii("]}");
+
+        return Arrays.copyOf(buf, pos);
+    }
+
+    // ==================================================
+    // Writers
+    // ==================================================
+    private void writeInstant(Instant t) {
+        if (t == null) {
+            writeAscii("null");
+            return;
+        }
+        writeByte('"');
+        writeAscii(t.toString());
+        writeByte('"');
+    }
+
+    private void writeString(String s) {
+        if (s == null) {
+            writeAscii("null");
+            return;
+        }
+
+        writeByte('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"'  -> writeAscii("\\\"");
+                case '\\' -> writeAscii("\\\\");
+                case '\n' -> writeAscii("\\n");
+                case '\r' -> writeAscii("\\r");
+                case '\t' -> writeAscii("\\t");
+                case '\b' -> writeAscii("\\b");
+                case '\f' -> writeAscii("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        writeAscii("\\u00");
+                        writeByte(HEX[c >> 4]);
+                        writeByte(HEX[c & 0xF]);
+                    } else {
+                        i = writeUtf8(s, i);
+                    }
+                }
+            }
+        }
+        writeByte('"');
+    }
+
+    /**
+     * payload 컬럼은 이미 JSON → escape 없이 UTF-8 인코딩만
+     */
+    private void writeRawJson(String json) {
+        if (json == null || json.isBlank()) {
+            writeAscii("null");
+            return;
+        }
+        for (int i = 0; i < json.length(); i++) {
+            i = writeUtf8(json, i);
+        }
+    }
+
+    /**
+     * batch row payload: 문법이 맞으면 raw, 아니면 문자열 (envelope 전체가 깨지지 않도록)
+     */
+    private void writeBatchPayload(String json) {
+        if (json == null || json.isBlank() || JsonSyntax.isValue(json)) {
+            writeRawJson(json);
+        } else {
+            writeString(json);
+        }
+    }
+
+    /**
+     * s[i] 한 글자 (surrogate pair면 두 글자) 기록
+     * @return 마지막으로 소비한 index
+     */
+    private int writeUtf8(String s, int i) {
+        char c = s.charAt(i);
+
+        if (c < 0x80) {
+            writeByte(c);
+        } else if (c < 0x800) {
+            ensure(2);
+            buf[pos++] = (byte) (0xC0 | (c >> 6));
+            buf[pos++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)
+                && i + 1 < s.length()
+                && Character.isLowSurrogate(s.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, s.charAt(++i));
+            ensure(4);
+            buf[pos++] = (byte) (0xF0 | (cp >> 18));
+            buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+            buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            // 짝 없는 surrogate → '?' (String.getBytes(UTF_8)와 동일)
+            writeByte('?');
+        } else {
+            ensure(3);
+            buf[pos++] = (byte) (0xE0 | (c >> 12));
+            buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buf[pos++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return i;
+    }
+
+    private void writeAscii(String s) {
+        int n = s.length();
+        ensure(n);
+        for (int i = 0; i < n; i++) {
+            buf[pos++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void writeByte(int b) {
+        ensure(1);
+        buf[pos++] = (byte) b;
+    }
+
+    private void ensure(int n) {
+        if (pos + n > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+        }
+    }
+}
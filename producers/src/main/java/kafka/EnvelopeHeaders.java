@@ -0,0 +1,23 @@
+package kafka;
+
+/**
+ * *.raw record header 이름
+ * (streams-parser의 onlog.streams.parser.EnvelopeHeaders와 같은 값이어야 함)
+ *
+ * - record timestamp = received_at (batch envelope는 첫 row)
+ * - VERSION 헤더가 있으면 consumer는 timestamp / routing을 JSON 파싱 없이 사용
+ * - spool을 거친 record도 timestamp / 헤더를 그대로 재전송
+ */
+public final class EnvelopeHeaders {
+
+    public static final String VERSION = "onlog-envelope";
+    public static final String CURRENT_VERSION = "1";
+
+    public static final String TENANT_ID   = "onlog-tenant-id";
+    public static final String LINE_ID     = "onlog-line-id";
+    public static final String PROCESS     = "onlog-process";
+    public static final String DEVICE_TYPE = "onlog-device-type";
+    public static final String METRIC      = "onlog-metric";
+
+    private EnvelopeHeaders() {}
+}
@@ -0,0 +1,164 @@
+package kafka;
+
+/**
+ * JSON 문법 검사 (값 하나 + 앞뒤 공백), tree / String을 만들지 않음
+ *
+ * batch envelope에 payload를 raw로 넣어도 되는지 확인용
+ * (깨진 payload 하나가 envelope 전체를 깨뜨리지 않도록)
+ */
+final class JsonSyntax {
+
+    // 이보다 깊으면 invalid 취급 (재귀 상한)
+    private static final int MAX_DEPTH = 64;
+
+    static boolean isValue(String s) {
+        int i = value(s, skipWs(s, 0), 0);
+        return i >= 0 && skipWs(s, i) == s.length();
+    }
+
+    /**
+     * @return 값 바로 다음 index, -1 = 문법 오류
+     */
+    private static int value(String s, int i, int depth) {
+        if (i >= s.length() || depth > MAX_DEPTH) {
+            return -1;
+        }
+
+        return switch (s.charAt(i)) {
+            case '{' -> object(s, skipWs(s, i + 1), depth + 1);
+            case '[' -> array(s, skipWs(s, i + 1), depth + 1);
+            case '"' -> string(s, i + 1);
+            case 't' -> literal(s, i, "true");
+            case 'f' -> literal(s, i, "false");
+            case 'n' -> literal(s, i, "null");
+            default  -> number(s, i);
+        };
+    }
+
+    private static int object(String s, int i, int depth) {
+        if (i < s.length() && s.charAt(i) == '}') {
+            return i + 1;
+        }
+
+        while (true) {
+            if (i >= s.length() || s.charAt(i) != '"') return -1;
+
+            i = skipWs(s, string(s, i + 1));
+            if (i < 0 || i >= s.length() || s.charAt(i) != ':') return -1;
+
+            i = skipWs(s, value(s, skipWs(s, i + 1), depth));
+            if (i < 0 || i >= s.length()) return -1;
+
+            char c = s.charAt(i);
+            if (c == '}') return i + 1;
+            if (c != ',') return -1;
+
+            i = skipWs(s, i + 1);
+        }
+    }
+
+    private static int array(String s, int i, int depth) {
+        if (i < s.length() && s.charAt(i) == ']') {
+            return i + 1;
+        }
+
+        while (true) {
+            i = skipWs(s, value(s, i, depth));
+            if (i < 0 || i >= s.length()) return -1;
+
+            char c = s.charAt(i);
+            if (c == ']') return i + 1;
+            if (c != ',') return -1;
+
+            i = skipWs(s, i + 1);
+        }
+    }
+
+    /**
+     * 여는 '"' 다음부터
+     */
+    private static int string(String s, int i) {
+        while (i < s.length()) {
+            char c = s.charAt(i++);
+
+            if (c == '"') return i;
+            if (c < 0x20) return -1;
+
+            if (c == '\\') {
+                if (i >= s.length()) return -1;
+
+                char e = s.charAt(i++);
+                if (e == 'u') {
+                    if (i + 4 > s.length()) return -1;
+                    for (int end = i + 4; i < end; i++) {
+                        if (!isHex(s.charAt(i))) return -1;
+                    }
+                } else if ("\"\\/bfnrt".indexOf(e) < 0) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * -?(0|[1-9][0-9]*)(.[0-9]+)?([eE][+-]?[0-9]+)?
+     */
+    private static int number(String s, int i) {
+        int n = s.length();
+
+        if (i < n && s.charAt(i) == '-') i++;
+
+        if (i < n && s.charAt(i) == '0') {
+            i++;
+        } else {
+            int start = i;
+            i = digits(s, i);
+            if (i == start) return -1;
+        }
+
+        if (i < n && s.charAt(i) == '.') {
+            int start = ++i;
+            i = digits(s, i);
+            if (i == start) return -1;
+        }
+
+        if (i < n && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            if (i < n && (s.charAt(i) == '+' || s.charAt(i) == '-')) i++;
+            int start = i;
+            i = digits(s, i);
+            if (i == start) return -1;
+        }
+        return i;
+    }
+
+    private static int literal(String s, int i, String word) {
+        return s.startsWith(word, i) ? i + word.length() : -1;
+    }
+
+    // ==================================================
+    // helpers
+    // ==================================================
+    private static int digits(String s, int i) {
+        while (i < s.length() && s.charAt(i) >= '0' && s.charAt(i) <= '9') i++;
+        return i;
+    }
+
+    // -1 (앞 단계 오류)은 그대로 전달
+    private static int skipWs(String s, int i) {
+        if (i < 0) return i;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') break;
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isHex(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private JsonSyntax() {}
+}
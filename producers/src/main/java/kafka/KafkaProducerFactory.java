@@ -1,13 +1,14 @@
 package kafka;
 
 import org.apache.kafka.clients.producer.*;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 
 import java.util.Properties;
 
 public class KafkaProducerFactory {
 
-    public static KafkaProducer<String, String> create(String bootstrapServers) {
+    public static KafkaProducer<String, byte[]> create(String bootstrapServers) {
 
         Properties props = new Properties();
 
@@ -16,7 +17,8 @@ public class KafkaProducerFactory {
         // ==================================================
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        // value = EnvelopeEncoder가 만든 UTF-8 JSON bytes (재인코딩 없음)
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
         props.put(ProducerConfig.ACKS_CONFIG, "all");
 
         // ==================================================
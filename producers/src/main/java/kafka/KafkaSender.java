@@ -1,50 +1,473 @@
 package kafka;
 
+import filter.DeadbandFilter;
 import model.RawLogRow;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class KafkaSender {
 
-    private final KafkaProducer<String, String> producer;
+    private static final int DRAIN_CHUNK = 500;
+    private static final long DRAIN_RETRY_MS = 1_000;
+
+    // spool force 주기 / force 전 최대 대기 row 수 (그 전에는 callback 보류)
+    private static final long SPOOL_SYNC_MS = 100;
+    private static final int SPOOL_SYNC_ROWS = 1_000;
+
+    private final KafkaProducer<String, byte[]> producer;
+
+    // sender thread 전용 (buffer 재사용)
+    private final EnvelopeEncoder encoder = new EnvelopeEncoder();
+
+    // ack 안 된 record 수 상한 (넘으면 send가 block → reader도 멈춤)
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+
+    private final SendStats stats = new SendStats();
+
+    // ==================================================
+    // Store-and-forward (spool == null 이면 비활성)
+    // ==================================================
+    private final DiskSpool spool;
+    private final long spoolAfterMs;
+
+    // true 동안은 순서 유지를 위해 모든 record를 spool로 (drain이 끝나면 false)
+    private volatile boolean spooling;
+
+    // spool에 append 했지만 아직 force 전인 record의 callback (spool lock 안에서만 접근)
+    private final List<Callback> unsynced = new ArrayList<>();
+
+    // 값 변화 없는 row skip (null 이면 비활성)
+    private final DeadbandFilter filter;
+
+    // ==================================================
+    // Batch envelope (batchRows <= 1 이면 row당 record 1개)
+    // ==================================================
+    private static final class PendingBatch {
+        final List<RawLogRow> rows = new ArrayList<>();
+        final List<Callback> callbacks = new ArrayList<>();
+    }
+
+    private int batchRows = 1;
 
-    public KafkaSender(KafkaProducer<String, String> producer) {
+    // routing key → 모으는 중인 rows (sender thread 전용)
+    private final Map<String, PendingBatch> batches = new LinkedHashMap<>();
+
+    // header 값 → UTF-8 bytes
+    private final Map<String, byte[]> headerBytes = new HashMap<>();
+
+    public KafkaSender(KafkaProducer<String, byte[]> producer, int maxInFlight) {
+        this(producer, maxInFlight, null, 0, null);
+    }
+
+    /**
+     * @param spool        broker가 느리거나 죽었을 때 보관할 로컬 spool
+     * @param spoolAfterMs in-flight 상한에서 이만큼 기다려도 자리가 안 나면 spool로 전환
+     * @param filter       deadband / change-only filter
+     */
+    public KafkaSender(
+            KafkaProducer<String, byte[]> producer,
+            int maxInFlight,
+            DiskSpool spool,
+            long spoolAfterMs,
+            DeadbandFilter filter
+    ) {
         this.producer = producer;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.spool = spool;
+        this.spoolAfterMs = spoolAfterMs;
+        this.filter = filter;
+
+        if (spool != null) {
+            // 이전 실행에서 남은 spool부터 drain
+            spooling = !spool.isEmpty();
+
+            Thread drainer = new Thread(this::drainLoop, "spool-drain");
+            drainer.setDaemon(true);
+            drainer.start();
+
+            Thread syncer = new Thread(this::syncLoop, "spool-sync");
+            syncer.setDaemon(true);
+            syncer.start();
+        }
+    }
+
+    /**
+     * 같은 topic / device / routing 의 rows를 최대 n개씩 record 하나로 묶음
+     * (streams-parser가 batch envelope를 풀 수 있는 버전이어야 함)
+     */
+    public void enableBatching(int n) {
+        this.batchRows = n;
     }
 
     public void send(RawLogRow row) {
-        producer.send(
-            new ProducerRecord<>(
-                row.topic,
-                row.devEui,
-                buildValue(row)
-            )
-        );
+        send(row, null);
+    }
+
+    /**
+     * in-flight 상한에 걸리면 ack가 돌아올 때까지 대기
+     * (spool 사용 시: spoolAfterMs 이상 걸리면 디스크에 기록하고 바로 반환)
+     *
+     * @param callback ack / 실패 통지 (producer I/O thread에서 호출됨)
+     *                 filter로 skip된 경우 / spool에 기록 후 force 된 경우 metadata == null 로 성공 통지
+     */
+    public void send(RawLogRow row, Callback callback) {
+
+        stats.topic(row.topic).markReceivedAt(row.receivedAt);
+
+        if (filter != null) {
+            DeadbandFilter.Sent sent = filter.accept(row);
+
+            // skip도 "처리 완료" → cursor / checkpoint는 그대로 전진
+            if (sent == null) {
+                stats.topic(row.topic).filtered.increment();
+                if (callback != null) {
+                    callback.onCompletion(null, null);
+                }
+                return;
+            }
+
+            // filter 상태는 ack 된 뒤에만 commit
+            if (sent != DeadbandFilter.PASS) {
+                Callback downstream = callback;
+                callback = (meta, ex) -> {
+                    if (ex == null) filter.acked(sent);
+                    if (downstream != null) downstream.onCompletion(meta, ex);
+                };
+            }
+        }
+
+        if (batchRows > 1) {
+            addToBatch(row, callback);
+            return;
+        }
+
+        dispatch(row, encoder.encode(row), callback);
+    }
+
+    private void addToBatch(RawLogRow row, Callback callback) {
+        String key = row.topic + '|' + row.devEui + '|' + row.tenantId + '|'
+                + row.lineId + '|' + row.process + '|' + row.deviceType + '|' + row.metric;
+
+        PendingBatch batch = batches.computeIfAbsent(key, k -> new PendingBatch());
+        batch.rows.add(row);
+        batch.callbacks.add(callback);
+
+        if (batch.rows.size() >= batchRows) {
+            batches.remove(key);
+            sendBatch(batch);
+        }
+    }
+
+    /**
+     * 전송 실패로 cursor를 되돌릴 때 호출 (ack 안 된 filter 상태 폐기 → 재전송 row가 skip되지 않음)
+     */
+    public void rewindFilter() {
+        if (filter != null) filter.rewind();
+    }
+
+    /**
+     * 모으는 중인 batch 전부 전송 (poll cycle / backfill batch 끝마다 호출)
+     */
+    public void flushBatches() {
+        Iterator<PendingBatch> it = batches.values().iterator();
+        while (it.hasNext()) {
+            PendingBatch batch = it.next();
+            it.remove();
+            sendBatch(batch);
+        }
+    }
+
+    private void sendBatch(PendingBatch batch) {
+        RawLogRow first = batch.rows.get(0);
+
+        // batch 하나의 ack / 실패 → 포함된 row 전부에 통지
+        List<Callback> callbacks = batch.callbacks;
+        Callback fanOut = (meta, ex) -> {
+            for (Callback cb : callbacks) {
+                if (cb != null) cb.onCompletion(meta, ex);
+            }
+        };
+
+        byte[] value = batch.rows.size() == 1
+                ? encoder.encode(first)
+                : encoder.encodeBatch(batch.rows);
+
+        dispatch(first, value, fanOut);
+    }
+
+    /**
+     * in-flight permit → 직접 전송, 또는 spool
+     */
+    private void dispatch(RawLogRow first, byte[] value, Callback callback) {
+
+        ProducerRecord<String, byte[]> record = record(first, value);
+
+        if (spool != null && !acquireOrSpool(record, callback)) {
+            return;
+        }
+        if (spool == null) {
+            inFlight.acquireUninterruptibly();
+        }
+
+        doSend(record, callback);
+    }
+
+    /**
+     * timestamp = received_at, routing 필드는 header로도
+     * (consumer가 timestamp / routing만 필요할 때 JSON 파싱 생략)
+     */
+    private ProducerRecord<String, byte[]> record(RawLogRow first, byte[] value) {
+
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(EnvelopeHeaders.VERSION, headerValue(EnvelopeHeaders.CURRENT_VERSION));
+        addHeader(headers, EnvelopeHeaders.TENANT_ID, first.tenantId);
+        addHeader(headers, EnvelopeHeaders.LINE_ID, first.lineId);
+        addHeader(headers, EnvelopeHeaders.PROCESS, first.process);
+        addHeader(headers, EnvelopeHeaders.DEVICE_TYPE, first.deviceType);
+        addHeader(headers, EnvelopeHeaders.METRIC, first.metric);
+
+        Long timestamp = first.receivedAt == null ? null : first.receivedAt.toEpochMilli();
+
+        return new ProducerRecord<>(first.topic, null, timestamp, first.devEui, value, headers);
+    }
+
+    private void addHeader(RecordHeaders headers, String key, String value) {
+        if (value != null) {
+            headers.add(key, headerValue(value));
+        }
+    }
+
+    // routing 값 종류는 적음 → UTF-8 bytes 재사용 (sender thread 전용)
+    private byte[] headerValue(String value) {
+        return headerBytes.computeIfAbsent(value, v -> v.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return true = permit 획득 (직접 전송), false = spool에 기록함 (callback은 force 후)
+     */
+    private boolean acquireOrSpool(ProducerRecord<String, byte[]> record, Callback callback) {
+
+        String topic = record.topic();
+
+        if (!spooling) {
+            try {
+                if (inFlight.tryAcquire(spoolAfterMs, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            System.err.println("[Spool] broker slow / unreachable, spooling to disk");
+        }
+
+        // drainer의 "비었음 → direct 복귀" 판단과 같은 lock
+        boolean syncNow;
+        synchronized (spool) {
+            spooling = true;
+            try {
+                spool.append(topic, record.key(), record.timestamp(), record.headers(), record.value());
+                stats.topic(topic).spooled.increment();
+            } catch (Exception e) {
+                stats.topic(topic).failed.increment();
+                if (callback != null) {
+                    callback.onCompletion(null, e);
+                }
+                return false;
+            }
+
+            if (callback != null) {
+                unsynced.add(callback);
+            }
+            syncNow = unsynced.size() >= SPOOL_SYNC_ROWS;
+        }
+
+        if (syncNow) {
+            syncSpool();
+        }
+        return false;
+    }
+
+    /**
+     * spool force → 보류 중인 callback 성공 통지 (force 실패 시 실패 통지)
+     * (callback은 lock 밖에서 호출)
+     */
+    private void syncSpool() {
+        List<Callback> done;
+        Exception error = null;
+
+        synchronized (spool) {
+            if (unsynced.isEmpty()) {
+                return;
+            }
+            try {
+                spool.force();
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            done = new ArrayList<>(unsynced);
+            unsynced.clear();
+        }
+
+        if (error != null) {
+            System.err.println("[Spool] force failed: " + error.getMessage());
+        }
+        for (Callback cb : done) {
+            cb.onCompletion(null, error);
+        }
+    }
+
+    private void syncLoop() {
+        while (true) {
+            try {
+                Thread.sleep(SPOOL_SYNC_MS);
+                syncSpool();
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                System.err.println("[Spool] sync failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void doSend(ProducerRecord<String, byte[]> record, Callback callback) {
+
+        byte[] value = record.value();
+
+        SendStats.TopicStats topic = stats.topic(record.topic());
+        topic.sent.increment();
+        topic.inFlightBytes.add(value.length);
+
+        long startNanos = System.nanoTime();
+
+        Callback tracked = (meta, ex) -> {
+            inFlight.release();
+            topic.inFlightBytes.add(-value.length);
+            topic.sendLatency.record(System.nanoTime() - startNanos);
+            if (ex != null) {
+                topic.failed.increment();
+                // 직접 전송 실패 → 이후 record는 spool 경유
+                if (spool != null) spooling = true;
+            } else {
+                topic.acked.increment();
+            }
+            if (callback != null) {
+                callback.onCompletion(meta, ex);
+            }
+        };
+
+        try {
+            producer.send(record, tracked);
+        } catch (RuntimeException e) {
+            // serialize / buffer 대기 timeout 등 동기 실패도 callback으로 통일
+            tracked.onCompletion(null, e);
+        }
+    }
+
+    // ==================================================
+    // Spool drain (background)
+    // ==================================================
+    private void drainLoop() {
+        while (true) {
+            try {
+                if (!spooling) {
+                    Thread.sleep(DRAIN_RETRY_MS);
+                    continue;
+                }
+
+                List<DiskSpool.Record> chunk = spool.peek(DRAIN_CHUNK);
+
+                if (chunk.isEmpty()) {
+                    synchronized (spool) {
+                        if (spool.isEmpty()) {
+                            spooling = false;
+                            System.out.println("[Spool] drained, back to direct send");
+                        }
+                    }
+                    continue;
+                }
+
+                AtomicInteger failed = new AtomicInteger();
+                for (DiskSpool.Record r : chunk) {
+                    inFlight.acquireUninterruptibly();
+                    // received_at timestamp / envelope header 그대로 재전송
+                    ProducerRecord<String, byte[]> record = new ProducerRecord<>(
+                        r.topic(), null, r.timestamp(), r.key(), r.value(), new RecordHeaders(r.headers())
+                    );
+                    doSend(record, (meta, ex) -> {
+                        if (ex != null) failed.incrementAndGet();
+                    });
+                }
+                producer.flush();
+
+                if (failed.get() == 0) {
+                    spool.commit();
+                } else {
+                    // 같은 위치부터 다시 (일부 중복 가능)
+                    Thread.sleep(DRAIN_RETRY_MS);
+                }
+
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                System.err.println("[Spool] drain failed: " + e.getMessage());
+                try {
+                    Thread.sleep(DRAIN_RETRY_MS);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
     }
 
+    /**
+     * 모으는 중인 batch + producer buffer + spool 모두 비울 때까지 대기
+     */
     public void flush() {
+        flushBatches();
         producer.flush();
+
+        if (spool == null) return;
+
+        syncSpool();
+
+        while (spooling) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        syncSpool();
+    }
+
+    /**
+     * broker 대신 spool로 쓰는 중인지 (drain 완료 전까지 true)
+     */
+    public boolean isSpooling() {
+        return spooling;
+    }
+
+    public int inFlight() {
+        return maxInFlight - inFlight.availablePermits();
     }
 
-    private String buildValue(RawLogRow row) {
-        return String.format("""
-            {
-              "received_at": "%s",
-              "tenant_id": "%s",
-              "line_id": "%s",
-              "process": "%s",
-              "device_type": "%s",
-              "metric": "%s",
-              "payload": %s
-            }
-            """,
-            row.receivedAt,
-            row.tenantId,
-            row.lineId,
-            row.process,
-            row.deviceType,
-            row.metric,
-            row.payload
-        );
+    public SendStats stats() {
+        return stats;
     }
 }
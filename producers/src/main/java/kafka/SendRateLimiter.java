@@ -0,0 +1,70 @@
+package kafka;
+
+/**
+ * 전역 send rate 제한 (token bucket, rows/sec)
+ * - rowsPerSec <= 0 이면 제한 없음
+ * - 최대 1초치 burst 허용
+ */
+public class SendRateLimiter {
+
+    private final double rowsPerSec;
+    private final double maxTokens;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public SendRateLimiter(double rowsPerSec) {
+        this.rowsPerSec = rowsPerSec;
+        this.maxTokens = Math.max(rowsPerSec, 1.0);
+        this.tokens = maxTokens;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    public boolean isUnlimited() {
+        return rowsPerSec <= 0;
+    }
+
+    /**
+     * n rows 만큼 token이 생길 때까지 대기
+     * - lock 안에서는 token 차감 (부족분은 빚으로 예약) + 대기 시간 계산만
+     * - sleep은 lock 밖 → 대기 중에도 다른 caller는 자기 차례 계산 가능
+     */
+    public void acquire(int n) throws InterruptedException {
+        if (isUnlimited()) return;
+
+        long waitNanos = reserve(n);
+        if (waitNanos > 0) {
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+        }
+    }
+
+    private synchronized long reserve(int n) {
+        refill();
+        tokens -= n;
+
+        return tokens < 0 ? (long) (-tokens / rowsPerSec * 1_000_000_000L) : 0L;
+    }
+
+    /**
+     * 기다리지 않는 버전: token이 n개 이상 있을 때만 차감
+     * (한 번에 1초치보다 큰 n은 bucket이 가득 찼을 때 허용)
+     */
+    public synchronized boolean tryAcquire(int n) {
+        if (isUnlimited()) return true;
+
+        refill();
+        if (tokens < Math.min(n, maxTokens)) return false;
+
+        tokens -= n;
+        return true;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(
+            maxTokens,
+            tokens + (now - lastRefillNanos) / 1_000_000_000.0 * rowsPerSec
+        );
+        lastRefillNanos = now;
+    }
+}
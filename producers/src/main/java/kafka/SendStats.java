@@ -0,0 +1,77 @@
+package kafka;
+
+import metrics.LatencyHistogram;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * topic별 전송 카운터 (sent / acked / failed / spooled / filtered)
+ * + in-flight bytes, send → ack latency, edge lag
+ * callback thread와 sender thread에서 동시에 갱신됨
+ */
+public class SendStats {
+
+    public static final class TopicStats {
+        public final LongAdder sent = new LongAdder();
+        public final LongAdder acked = new LongAdder();
+        public final LongAdder failed = new LongAdder();
+
+        // broker 대신 DiskSpool에 기록된 수 (drain 시 sent로 다시 집계)
+        public final LongAdder spooled = new LongAdder();
+
+        // DeadbandFilter로 skip된 수
+        public final LongAdder filtered = new LongAdder();
+
+        // 직접 전송 중인 record value bytes (ack / 실패 시 차감)
+        public final LongAdder inFlightBytes = new LongAdder();
+
+        // producer.send → callback
+        public final LatencyHistogram sendLatency = new LatencyHistogram();
+
+        // send()에 넘어온 row 중 가장 최신 received_at (epoch ms)
+        private final AtomicLong newestReceivedAtMs = new AtomicLong();
+
+        public long inFlight() {
+            return sent.sum() - acked.sum() - failed.sum();
+        }
+
+        public void markReceivedAt(Instant receivedAt) {
+            if (receivedAt != null) {
+                newestReceivedAtMs.accumulateAndGet(receivedAt.toEpochMilli(), Math::max);
+            }
+        }
+
+        /**
+         * now - 가장 최신 received_at (아직 보낸 row가 없으면 -1)
+         */
+        public long edgeLagMs() {
+            long newest = newestReceivedAtMs.get();
+            return newest == 0 ? -1 : System.currentTimeMillis() - newest;
+        }
+    }
+
+    private final Map<String, TopicStats> topics = new ConcurrentHashMap<>();
+
+    public TopicStats topic(String topic) {
+        return topics.computeIfAbsent(topic, t -> new TopicStats());
+    }
+
+    public Map<String, TopicStats> snapshot() {
+        return new TreeMap<>(topics);
+    }
+
+    public void print() {
+        snapshot().forEach((topic, s) ->
+            System.out.printf(
+                "[Send stats] topic=%s sent=%d acked=%d failed=%d spooled=%d filtered=%d inFlight=%d edgeLag=%dms%n",
+                topic, s.sent.sum(), s.acked.sum(), s.failed.sum(),
+                s.spooled.sum(), s.filtered.sum(), s.inFlight(), s.edgeLagMs()
+            )
+        );
+    }
+}
@@ -0,0 +1,72 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 고정 bucket latency histogram (Prometheus histogram 형식으로 출력)
+ * - record()는 lock 없이 여러 thread에서 호출 가능
+ * - bucket 경계: 0.5ms ~ 30s
+ */
+public class LatencyHistogram {
+
+    private static final double[] BOUNDS_SECONDS = {
+        0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05,
+        0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30
+    };
+
+    private static final long[] BOUNDS_NANOS = new long[BOUNDS_SECONDS.length];
+    static {
+        for (int i = 0; i < BOUNDS_SECONDS.length; i++) {
+            BOUNDS_NANOS[i] = (long) (BOUNDS_SECONDS[i] * 1_000_000_000L);
+        }
+    }
+
+    // 마지막 칸 = +Inf
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int i = 0;
+        while (i < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        count.increment();
+        sumNanos.add(nanos);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * name_bucket{le=...} (누적) / name_sum / name_count
+     * @param labels 중괄호 없이 (예: topic="a")
+     */
+    void write(StringBuilder out, String name, String labels) {
+        String sep = labels.isEmpty() ? "" : labels + ",";
+
+        long cumulative = 0;
+        for (int i = 0; i < BOUNDS_SECONDS.length; i++) {
+            cumulative += buckets[i].sum();
+            out.append(name).append("_bucket{").append(sep)
+               .append("le=\"").append(BOUNDS_SECONDS[i]).append("\"} ")
+               .append(cumulative).append('\n');
+        }
+        cumulative += buckets[BOUNDS_SECONDS.length].sum();
+        out.append(name).append("_bucket{").append(sep)
+           .append("le=\"+Inf\"} ").append(cumulative).append('\n');
+
+        out.append(name).append("_sum{").append(labels).append("} ")
+           .append(sumNanos.sum() / 1e9).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ")
+           .append(cumulative).append('\n');
+    }
+}
@@ -0,0 +1,166 @@
+package metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import kafka.SendStats;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * GET /metrics (Prometheus text format, JDK 내장 HttpServer)
+ *
+ * - onlog_producer_*  : DB별 읽기 / topic별 전송 / edge lag
+ * - kafka_producer_*  : KafkaProducer.metrics() 그대로 (같은 값은 JMX kafka.producer 에도 있음)
+ */
+public class MetricsServer {
+
+    private final SendStats sendStats;
+    private final ReadStats readStats;
+    private final Producer<?, ?> producer;
+
+    private MetricsServer(SendStats sendStats, ReadStats readStats, Producer<?, ?> producer) {
+        this.sendStats = sendStats;
+        this.readStats = readStats;
+        this.producer = producer;
+    }
+
+    public static void start(
+            int port,
+            SendStats sendStats,
+            ReadStats readStats,
+            Producer<?, ?> producer
+    ) throws IOException {
+
+        MetricsServer metrics = new MetricsServer(sendStats, readStats, producer);
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", metrics::handle);
+        // executor 미지정 → dispatcher thread 1개 (scrape 빈도가 낮음)
+        server.start();
+
+        System.out.println("[Metrics] http://0.0.0.0:" + port + "/metrics");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = render().getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    String render() {
+        StringBuilder out = new StringBuilder(16 * 1024);
+
+        // ==================================================
+        // SQLite 읽기 (DB별)
+        // ==================================================
+        Map<String, ReadStats.DbStats> dbs = readStats.snapshot();
+
+        type(out, "onlog_producer_rows_read_total", "counter");
+        dbs.forEach((db, s) -> sample(out, "onlog_producer_rows_read_total", label("db", db), s.rows.sum()));
+
+        type(out, "onlog_producer_sqlite_queries_total", "counter");
+        dbs.forEach((db, s) -> sample(out, "onlog_producer_sqlite_queries_total", label("db", db), s.queries.sum()));
+
+        type(out, "onlog_producer_sqlite_read_seconds", "histogram");
+        dbs.forEach((db, s) -> s.readTime.write(out, "onlog_producer_sqlite_read_seconds", label("db", db)));
+
+        // ==================================================
+        // Kafka 전송 (topic별)
+        // ==================================================
+        Map<String, SendStats.TopicStats> topics = sendStats.snapshot();
+
+        type(out, "onlog_producer_records_sent_total", "counter");
+        topics.forEach((t, s) -> sample(out, "onlog_producer_records_sent_total", label("topic", t), s.sent.sum()));
+
+        type(out, "onlog_producer_records_acked_total", "counter");
+        topics.forEach((t, s) -> sample(out, "onlog_producer_records_acked_total", label("topic", t), s.acked.sum()));
+
+        type(out, "onlog_producer_records_failed_total", "counter");
+        topics.forEach((t, s) -> sample(out, "onlog_producer_records_failed_total", label("topic", t), s.failed.sum()));
+
+        type(out, "onlog_producer_records_spooled_total", "counter");
+        topics.forEach((t, s) -> sample(out, "onlog_producer_records_spooled_total", label("topic", t), s.spooled.sum()));
+
+        type(out, "onlog_producer_rows_filtered_total", "counter");
+        topics.forEach((t, s) -> sample(out, "onlog_producer_rows_filtered_total", label("topic", t), s.filtered.sum()));
+
+        type(out, "onlog_producer_in_flight_records", "gauge");
+        topics.forEach((t, s) -> sample(out, "onlog_producer_in_flight_records", label("topic", t), s.inFlight()));
+
+        type(out, "onlog_producer_in_flight_bytes", "gauge");
+        topics.forEach((t, s) -> sample(out, "onlog_producer_in_flight_bytes", label("topic", t), s.inFlightBytes.sum()));
+
+        type(out, "onlog_producer_send_latency_seconds", "histogram");
+        topics.forEach((t, s) -> s.sendLatency.write(out, "onlog_producer_send_latency_seconds", label("topic", t)));
+
+        // now - 가장 최신으로 보낸 row의 received_at
+        type(out, "onlog_producer_edge_lag_seconds", "gauge");
+        topics.forEach((t, s) -> {
+            long lag = s.edgeLagMs();
+            if (lag >= 0) {
+                sample(out, "onlog_producer_edge_lag_seconds", label("topic", t), lag / 1000.0);
+            }
+        });
+
+        // ==================================================
+        // KafkaProducer 내장 metrics
+        // ==================================================
+        for (Map.Entry<MetricName, ? extends Metric> e : producer.metrics().entrySet()) {
+            Object value = e.getValue().metricValue();
+            if (!(value instanceof Number n) || Double.isNaN(n.doubleValue())) continue;
+
+            MetricName m = e.getKey();
+            StringBuilder labels = new StringBuilder();
+            m.tags().forEach((k, v) -> {
+                if (labels.length() > 0) labels.append(',');
+                labels.append(label(k, v));
+            });
+
+            sample(out, "kafka_producer_" + sanitize(m.group() + "_" + m.name()), labels.toString(), n.doubleValue());
+        }
+
+        return out.toString();
+    }
+
+    // ==================================================
+    // Prometheus text helpers
+    // ==================================================
+    private static void type(StringBuilder out, String name, String type) {
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name).append('{').append(labels).append("} ");
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    private static String label(String key, String value) {
+        String escaped = value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return sanitize(key) + "=\"" + escaped + "\"";
+    }
+
+    private static String sanitize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            sb.append(Character.isLetterOrDigit(c) ? c : '_');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DB별 SQLite 읽기 카운터 (process 전역)
+ * - realtime tailer / backfill reader thread에서 동시에 갱신됨
+ * - readTime = executeQuery + row 변환 시간 (handler = Kafka 전송 시간은 제외)
+ *   → send 쪽 latency와 비교해서 병목 판단
+ */
+public class ReadStats {
+
+    public static final class DbStats {
+        public final LongAdder rows = new LongAdder();
+        public final LongAdder queries = new LongAdder();
+        public final LatencyHistogram readTime = new LatencyHistogram();
+    }
+
+    private static final ReadStats GLOBAL = new ReadStats();
+
+    public static ReadStats global() {
+        return GLOBAL;
+    }
+
+    private final Map<String, DbStats> dbs = new ConcurrentHashMap<>();
+
+    public DbStats db(String name) {
+        return dbs.computeIfAbsent(name, n -> new DbStats());
+    }
+
+    public Map<String, DbStats> snapshot() {
+        return new TreeMap<>(dbs);
+    }
+}
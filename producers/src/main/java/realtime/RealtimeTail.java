@@ -0,0 +1,153 @@
+package realtime;
+
+import kafka.AckWatermark;
+import kafka.KafkaSender;
+import sqlite.DbChangeProbe;
+import sqlite.RawLogTailer;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Realtime tail (DB별 tailer + ack watermark)
+ *
+ * - pollDue() 한 번 = 모든 DB를 한 바퀴 (변경된 DB만 query)
+ * - 호출 주기 / sleep은 호출자가 결정 (realtime 단독 loop, combined scheduler)
+ */
+public class RealtimeTail {
+
+    // tailer = 읽은 위치, acks = Kafka ack 확인된 위치
+    private static final class TailState {
+        final RawLogTailer tailer;
+        final AckWatermark acks;
+        final DbChangeProbe probe;
+        final long startId;
+        long lastPollMs;
+
+        TailState(File db, int pageSize) throws Exception {
+            this.tailer = new RawLogTailer(db.getAbsolutePath(), db.getName(), pageSize);
+            this.tailer.seekToEnd();
+            this.startId = tailer.cursor();
+            this.acks = new AckWatermark(tailer.cursor(), null);
+            this.probe = new DbChangeProbe(db.getAbsolutePath());
+        }
+    }
+
+    private final List<TailState> states = new ArrayList<>();
+    private final KafkaSender sender;
+    private final long maxIntervalMs;
+
+    /**
+     * @param maxIntervalMs 변경이 안 보여도 이 간격마다 한 번은 query (fallback)
+     */
+    public RealtimeTail(File[] dbFiles, KafkaSender sender, int pageSize, long maxIntervalMs) throws Exception {
+        this.sender = sender;
+        this.maxIntervalMs = maxIntervalMs;
+
+        for (File db : dbFiles) {
+            TailState state = new TailState(db, pageSize);
+            states.add(state);
+            System.out.printf(
+                "[Realtime start] db=%s fromId=%d%n",
+                state.tailer.name(), state.tailer.cursor()
+            );
+        }
+    }
+
+    /**
+     * 모든 DB 한 바퀴: 새 row를 읽는 즉시 전송
+     * @return 이번에 보낸 row 수
+     */
+    public int pollDue() {
+
+        long now = System.currentTimeMillis();
+        int total = 0;
+
+        for (TailState state : states) {
+
+            RawLogTailer tailer = state.tailer;
+
+            // 변경된 DB만 query (+ 실패 재전송 / 최대 간격 fallback)
+            boolean due =
+                    state.probe.changed()
+                    || state.acks.hasFailure()
+                    || now - state.lastPollMs >= maxIntervalMs;
+
+            if (!due) continue;
+            state.lastPollMs = now;
+
+            // 전송 실패 → ack된 위치로 되돌려 재전송
+            if (state.acks.hasFailure()) {
+                long from = state.acks.rewind();
+                System.err.printf(
+                    "[Realtime] db=%s send failed, resending from id=%d%n",
+                    tailer.name(), from
+                );
+                tailer.seek(from);
+                sender.rewindFilter();
+            }
+
+            try {
+                int rows;
+                do {
+                    // 읽는 즉시 전송 (page 전체를 모으지 않음)
+                    rows = tailer.poll(row ->
+                        sender.send(row, state.acks.track(row))
+                    );
+                    total += rows;
+
+                    if (rows > 0) {
+                        System.out.printf(
+                            "[Realtime] db=%s rows=%d (→ id=%d)%n",
+                            tailer.name(), rows, tailer.cursor()
+                        );
+                    }
+                } while (rows == tailer.pageSize());
+
+                sender.flushBatches();
+
+            } catch (Exception e) {
+                // connection 정리 후 다음 cycle에서 재연결 (cursor 유지)
+                System.err.printf(
+                    "[Realtime] db=%s poll failed: %s%n",
+                    tailer.name(), e.getMessage()
+                );
+                tailer.close();
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * DB 이름 → realtime 시작 id (이 id 이하는 realtime이 보내지 않음)
+     */
+    public Map<String, Long> startIds() {
+        Map<String, Long> ids = new LinkedHashMap<>();
+        for (TailState state : states) {
+            ids.put(state.tailer.name(), state.startId);
+        }
+        return ids;
+    }
+
+    /**
+     * 아직 ack 안 된 realtime row 중 가장 오래된 것의 나이 (edge received_at 기준)
+     * 보낸 row가 전부 ack됐으면 0
+     */
+    public long lagMs() {
+        long now = System.currentTimeMillis();
+        long lag = 0;
+
+        for (TailState state : states) {
+            Instant oldest = state.acks.oldestPendingAt();
+            if (oldest != null) {
+                lag = Math.max(lag, now - oldest.toEpochMilli());
+            }
+        }
+        return lag;
+    }
+}
@@ -0,0 +1,49 @@
+package sqlite;
+
+import java.io.File;
+
+/**
+ * SQLite 파일 변경 감지 (stat 2번, query 없음)
+ *
+ * - WAL 모드: writer commit → "-wal" 파일 size / mtime 변경
+ * - rollback journal 모드: DB 파일 자체 변경
+ * - "-shm"은 reader도 건드리므로 보지 않음
+ *
+ * changed()는 query 전에 호출 → 그 사이 들어온 write는 다음 probe에서 잡힘
+ */
+public class DbChangeProbe {
+
+    private final File db;
+    private final File wal;
+
+    private long dbModified = -1;
+    private long dbLength = -1;
+    private long walModified = -1;
+    private long walLength = -1;
+
+    public DbChangeProbe(String path) {
+        this.db = new File(path);
+        this.wal = new File(path + "-wal");
+    }
+
+    /**
+     * 마지막 호출 이후 변경 여부 (첫 호출은 항상 true)
+     */
+    public boolean changed() {
+        long dm = db.lastModified();
+        long dl = db.length();
+        long wm = wal.lastModified();   // 없으면 0
+        long wl = wal.length();
+
+        boolean changed =
+                dm != dbModified || dl != dbLength
+                || wm != walModified || wl != walLength;
+
+        dbModified = dm;
+        dbLength = dl;
+        walModified = wm;
+        walLength = wl;
+
+        return changed;
+    }
+}
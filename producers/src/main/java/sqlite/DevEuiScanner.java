@@ -0,0 +1,63 @@
+package sqlite;
+
+/**
+ * payload JSON에서 "devEui" 값만 한 번 훑어서 추출 (regex / JSON parse 없음)
+ *
+ * 기존 regex와 동일한 규칙:
+ *   "devEui" \s* : \s* "([^"]+)"   → 첫 번째 매칭
+ *
+ * 같은 규칙으로 다른 문자열 필드도 추출 가능 (stringField)
+ */
+public final class DevEuiScanner {
+
+    private static final String KEY = "\"devEui\"";
+
+    public static String scan(String payload) {
+        return stringField(payload, KEY);
+    }
+
+    /**
+     * @param quotedKey 따옴표 포함 key (예: "\"data\"") → 호출부에서 상수로
+     */
+    public static String stringField(String payload, String quotedKey) {
+        if (payload == null) return null;
+
+        int n = payload.length();
+        int from = 0;
+
+        while (true) {
+            int k = payload.indexOf(quotedKey, from);
+            if (k < 0) return null;
+
+            int i = skipWhitespace(payload, k + quotedKey.length(), n);
+
+            if (i < n && payload.charAt(i) == ':') {
+                i = skipWhitespace(payload, i + 1, n);
+
+                if (i < n && payload.charAt(i) == '"') {
+                    int start = i + 1;
+                    int end = payload.indexOf('"', start);
+
+                    if (end > start) {
+                        return payload.substring(start, end);
+                    }
+                }
+            }
+
+            // "devEui" 뒤가 값 형태가 아님 → 다음 후보
+            from = k + 1;
+        }
+    }
+
+    private static int skipWhitespace(String s, int i, int n) {
+        while (i < n) {
+            char c = s.charAt(i);
+            // regex \s 와 동일 (space, \t, \n, \u000B, \f, \r)
+            if (c != ' ' && (c < '\t' || c > '\r')) break;
+            i++;
+        }
+        return i;
+    }
+
+    private DevEuiScanner() {}
+}
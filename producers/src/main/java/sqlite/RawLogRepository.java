@@ -1,65 +1,140 @@
 package sqlite;
 
+import metrics.ReadStats;
 import model.RawLogRow;
 
 import java.sql.*;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class RawLogRepository {
 
+    /**
+     * 한 번에 driver가 당겨오는 row 수
+     * (streaming 시 첫 row가 바로 나오도록 작게)
+     */
+    static final int FETCH_SIZE = 256;
+
+    static final String COLUMNS = """
+        id, received_at, topic, tenant_id, line_id,
+        process, device_type, metric, payload""";
+
     private final Connection conn;
 
-    private static final Pattern DEV_EUI_PATTERN =
-            Pattern.compile("\"devEui\"\\s*:\\s*\"([^\"]+)\"");
+    // metrics용 DB 이름
+    private final String name;
+
+    // edge DB에 dev_eui 컬럼이 있으면 payload 스캔 생략 (첫 조회 시 확인)
+    private Boolean devEuiColumn;
 
-    public RawLogRepository(Connection conn) {
+    public RawLogRepository(Connection conn, String name) {
         this.conn = conn;
+        this.name = name;
     }
 
     /**
-     * Realtime / Backfill 공용
-     * (from, to] + LIMIT
+     * Backfill용 (id 커서, 재개 가능)
+     * id > afterId AND received_at <= to, id 순서
+     * @return 전달한 row 수
      */
-    public List<RawLogRow> findBetween(Instant from, Instant to, int limit) throws Exception {
+    public long streamAfterId(long afterId, Instant to, int limit, RowHandler handler) throws Exception {
 
-        String sql = """
-            SELECT id, received_at, topic, tenant_id, line_id,
-                   process, device_type, metric, payload
-            FROM raw_logs
-            WHERE received_at > ?
+        String sql = selectFrom(devEuiColumn()) + """
+            WHERE id > ?
               AND received_at <= ?
-            ORDER BY received_at ASC
+            ORDER BY id ASC
             LIMIT ?
         """;
 
-        List<RawLogRow> rows = new ArrayList<>();
-
         try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, from.toString());
+            ps.setLong(1, afterId);
             ps.setString(2, to.toString());
             ps.setInt(3, limit);
 
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    rows.add(mapRow(rs));
+            return stream(ps, devEuiColumn(), name, handler);
+        }
+    }
+
+    /**
+     * Combined backfill용 (realtime 시작 id까지)
+     * afterId < id <= toId, id 순서
+     * @return 전달한 row 수
+     */
+    public long streamIdRange(long afterId, long toId, int limit, RowHandler handler) throws Exception {
+
+        String sql = selectFrom(devEuiColumn()) + """
+            WHERE id > ?
+              AND id <= ?
+            ORDER BY id ASC
+            LIMIT ?
+        """;
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, afterId);
+            ps.setLong(2, toId);
+            ps.setInt(3, limit);
+
+            return stream(ps, devEuiColumn(), name, handler);
+        }
+    }
+
+    private boolean devEuiColumn() throws SQLException {
+        if (devEuiColumn == null) {
+            devEuiColumn = hasDevEuiColumn(conn);
+        }
+        return devEuiColumn;
+    }
+
+    static boolean hasDevEuiColumn(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA table_info(raw_logs)")) {
+            while (rs.next()) {
+                if ("dev_eui".equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
                 }
             }
         }
-        return rows;
+        return false;
+    }
+
+    static String selectFrom(boolean devEuiColumn) {
+        return "SELECT " + COLUMNS
+                + (devEuiColumn ? ", dev_eui" : "")
+                + " FROM raw_logs ";
     }
 
     /**
-     * Realtime용 (window)
+     * 파라미터 바인딩이 끝난 statement 실행 → row 단위 전달
+     * 읽기 시간(handler 제외)은 ReadStats에 DB별로 기록
      */
-    public List<RawLogRow> findBetween(Instant from, Instant to) throws Exception {
-        return findBetween(from, to, Integer.MAX_VALUE);
+    static long stream(PreparedStatement ps, boolean devEuiColumn, String db, RowHandler handler) throws Exception {
+
+        ps.setFetchSize(FETCH_SIZE);
+
+        long count = 0;
+        long readNanos = 0;
+        long t = System.nanoTime();
+
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                RawLogRow row = mapRow(rs, devEuiColumn);
+                readNanos += System.nanoTime() - t;
+
+                handler.accept(row);
+                count++;
+
+                t = System.nanoTime();
+            }
+            readNanos += System.nanoTime() - t;
+        } finally {
+            ReadStats.DbStats stats = ReadStats.global().db(db);
+            stats.rows.add(count);
+            stats.queries.increment();
+            stats.readTime.record(readNanos);
+        }
+        return count;
     }
 
-    private RawLogRow mapRow(ResultSet rs) throws Exception {
+    static RawLogRow mapRow(ResultSet rs, boolean devEuiColumn) throws Exception {
 
         RawLogRow r = new RawLogRow();
 
@@ -74,14 +149,13 @@ public class RawLogRepository {
         r.metric = rs.getString("metric");
 
         r.payload = rs.getString("payload");
-        r.devEui = extractDevEui(r.payload);
 
-        return r;
-    }
+        // partition key: 컬럼 우선, 없으면 payload 1-pass 스캔
+        r.devEui = devEuiColumn ? rs.getString("dev_eui") : null;
+        if (r.devEui == null) {
+            r.devEui = DevEuiScanner.scan(r.payload);
+        }
 
-    private String extractDevEui(String payload) {
-        if (payload == null) return null;
-        Matcher m = DEV_EUI_PATTERN.matcher(payload);
-        return m.find() ? m.group(1) : null;
+        return r;
     }
 }
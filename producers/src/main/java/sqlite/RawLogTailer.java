@@ -0,0 +1,119 @@
+package sqlite;
+
+import model.RawLogRow;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Realtime 전용 tail reader
+ * - DB당 read-only connection / PreparedStatement 1개를 계속 재사용
+ * - received_at 문자열 비교 대신 id(rowid) 커서 기준
+ * - 한 번에 pageSize 이하만 읽음 (cycle 비용 = 새 row 수)
+ */
+public class RawLogTailer implements AutoCloseable {
+
+    private static final String TAIL_WHERE = """
+        WHERE id > ?
+        ORDER BY id ASC
+        LIMIT ?
+    """;
+
+    private static final String MAX_ID_SQL =
+            "SELECT COALESCE(MAX(id), 0) FROM raw_logs";
+
+    private final String path;
+    private final String name;
+    private final int pageSize;
+
+    private Connection conn;
+    private PreparedStatement tailStmt;
+    private boolean devEuiColumn;
+
+    private long cursor;
+
+    public RawLogTailer(String path, String name, int pageSize) {
+        this.path = path;
+        this.name = name;
+        this.pageSize = pageSize;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long cursor() {
+        return cursor;
+    }
+
+    public int pageSize() {
+        return pageSize;
+    }
+
+    /**
+     * 현재 마지막 id 이후부터 tail
+     * (그 이전 row는 backfill 담당)
+     */
+    public void seekToEnd() throws Exception {
+        ensureOpen();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(MAX_ID_SQL)) {
+            cursor = rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
+    /**
+     * 재전송용 (ack 실패 시 commit 위치로 되돌림)
+     */
+    public void seek(long id) {
+        cursor = id;
+    }
+
+    /**
+     * cursor 이후 row를 최대 pageSize 만큼 읽는 즉시 handler로 전달
+     * 결과가 pageSize와 같으면 아직 밀린 row가 남아있을 수 있음
+     * handler가 받은 row까지만 cursor 전진 (중간 실패 시 다음 poll에서 이어서)
+     *
+     * @return 전달한 row 수
+     */
+    public int poll(RowHandler handler) throws Exception {
+        ensureOpen();
+
+        tailStmt.setLong(1, cursor);
+        tailStmt.setInt(2, pageSize);
+
+        return (int) RawLogRepository.stream(tailStmt, devEuiColumn, name, row -> {
+            handler.accept(row);
+            cursor = row.id;
+        });
+    }
+
+    private void ensureOpen() throws Exception {
+        if (conn != null) return;
+
+        conn = SqliteClient.connectReadOnly(path);
+        devEuiColumn = RawLogRepository.hasDevEuiColumn(conn);
+        tailStmt = conn.prepareStatement(
+            RawLogRepository.selectFrom(devEuiColumn) + TAIL_WHERE
+        );
+    }
+
+    /**
+     * 에러 시에도 호출 가능 (다음 poll에서 재연결, cursor는 유지)
+     */
+    @Override
+    public void close() {
+        try {
+            if (tailStmt != null) tailStmt.close();
+        } catch (Exception ignored) {
+        }
+        try {
+            if (conn != null) conn.close();
+        } catch (Exception ignored) {
+        }
+        tailStmt = null;
+        conn = null;
+    }
+}
@@ -0,0 +1,13 @@
+package sqlite;
+
+import model.RawLogRow;
+
+/**
+ * ResultSet을 읽는 즉시 row 단위로 넘겨받는 callback
+ * (List에 모으지 않음 → heap 사용량 일정)
+ */
+@FunctionalInterface
+public interface RowHandler {
+
+    void accept(RawLogRow row) throws Exception;
+}
@@ -1,5 +1,7 @@
 package sqlite;
 
+import org.sqlite.SQLiteConfig;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 
@@ -9,4 +11,17 @@ public class SqliteClient {
         String url = "jdbc:sqlite:" + path;
         return DriverManager.getConnection(url);
     }
+
+    /**
+     * Tail 전용 (장시간 유지)
+     * edge writer와 lock 경합하지 않도록 read-only + busy timeout
+     */
+    public static Connection connectReadOnly(String path) throws Exception {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        config.setBusyTimeout(5_000);
+
+        String url = "jdbc:sqlite:" + path;
+        return DriverManager.getConnection(url, config.toProperties());
+    }
 }
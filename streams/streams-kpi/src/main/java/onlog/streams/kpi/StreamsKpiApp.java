@@ -1,6 +1,7 @@
 package onlog.streams.kpi;
 
 import onlog.common.serde.CanonicalEventSerde;
+import onlog.common.streams.BoundedRocksDBConfigSetter;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.StreamsConfig;
@@ -69,6 +70,14 @@ public class StreamsKpiApp {
             CanonicalEventSerde.class
         );
 
+        // =========================
+        // State store (RocksDB, 프로세스 전체 메모리 상한)
+        // =========================
+        props.put(
+            StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG,
+            BoundedRocksDBConfigSetter.class
+        );
+
         StreamsBuilder builder = new StreamsBuilder();
         KpiTopology.build(builder);
 
@@ -0,0 +1,71 @@
+package onlog.streams.parser;
+
+import java.util.Arrays;
+
+/**
+ * payload data(base64) 앞부분만 byte[] 없이 읽기 위한 helper
+ *
+ * - 검증 기준은 Base64.getDecoder()와 동일 (알파벳 / padding 위치)
+ * - unit(s, u) = u번째 4글자 → 24bit (= 3 bytes, 빈 자리 0)
+ */
+final class Base64Bytes {
+
+    // base64 문자 → 6bit 값 (-1 = base64 문자가 아님)
+    private static final byte[] SEXTET = new byte[128];
+    static {
+        Arrays.fill(SEXTET, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            SEXTET[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    /**
+     * 디코딩 후 byte 수 (-1 = Base64.getDecoder()가 예외를 던지는 문자열)
+     * - padding('=')은 2 / 3글자 남은 unit의 끝에만, 그 뒤에 글자 없음
+     * - padding 없이 1글자 남으면 오류
+     */
+    static int decodedLength(String s) {
+        int len = s.length();
+        int chars = len;
+
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+
+            if (c == '=') {
+                int rem = i % 4;
+                boolean ok = (rem == 2 && i + 2 == len && s.charAt(i + 1) == '=')
+                          || (rem == 3 && i + 1 == len);
+                if (!ok) return -1;
+                chars = i;
+                break;
+            }
+            if (c >= 128 || SEXTET[c] < 0) {
+                return -1;
+            }
+        }
+
+        int rem = chars % 4;
+        if (rem == 1) return -1;
+        return chars / 4 * 3 + (rem == 0 ? 0 : rem - 1);
+    }
+
+    /**
+     * u번째 unit(4글자) → 24bit, 상위 byte부터 (decodedLength 통과한 문자열만)
+     */
+    static int unit(String s, int u) {
+        int from = u * 4;
+        int bits = 0;
+        for (int i = from; i < from + 4; i++) {
+            int v = 0;
+            if (i < s.length()) {
+                char c = s.charAt(i);
+                if (c != '=') v = SEXTET[c];
+            }
+            bits = (bits << 6) | v;
+        }
+        return bits;
+    }
+
+    private Base64Bytes() {}
+}
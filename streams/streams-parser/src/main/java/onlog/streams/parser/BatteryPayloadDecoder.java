@@ -5,6 +5,50 @@ import java.util.Optional;
 
 public class BatteryPayloadDecoder {
 
+    /**
+     * decode(String, T, Sink) 결과 수신 (boxing / 객체 생성 없음)
+     * - target을 인자로 받으므로 non-capturing lambda / 상수 sink로 쓸 수 있음
+     */
+    @FunctionalInterface
+    public interface Sink<T> {
+        void accept(T target, int batteryMv, String batteryStatus, double temperature, double humidity);
+    }
+
+    // status bits → 상수 문자열 (index = 2bit 값)
+    private static final String[] STATUS = {"ULTRA_LOW", "LOW", "OK", "GOOD"};
+
+    /**
+     * decode(String)의 allocation 없는 버전
+     *
+     * - 앞 6 bytes(= base64 2 unit)만 디코딩해서 바로 int로 조립 (byte[] / Optional / record 없음)
+     * - 나머지 글자는 검증만 (Base64.getDecoder()와 같은 기준)
+     *
+     * @return false = base64 아님 또는 6 bytes 미만 (sink 호출 안 함)
+     */
+    public static <T> boolean decode(String base64, T target, Sink<? super T> sink) {
+
+        if (base64 == null || Base64Bytes.decodedLength(base64) < 6) {
+            return false;
+        }
+
+        // h0 = data[0..2], h1 = data[3..5]
+        int h0 = Base64Bytes.unit(base64, 0);
+        int h1 = Base64Bytes.unit(base64, 1);
+
+        int batRaw = (h0 >> 8) & 0xFFFF;
+        short tempRaw = (short) (((h0 & 0xFF) << 8) | ((h1 >> 16) & 0xFF));
+        int humRaw = h1 & 0xFFFF;
+
+        sink.accept(
+            target,
+            batRaw & 0x3FFF,
+            STATUS[(batRaw >> 14) & 0b11],
+            tempRaw / 100.0,
+            humRaw / 10.0
+        );
+        return true;
+    }
+
     /**
      * Try to decode ENV sensor payload.
      * Never throws exception.
@@ -2,13 +2,41 @@ package onlog.streams.parser;
 
 import org.apache.kafka.streams.state.KeyValueBytesStoreSupplier;
 import org.apache.kafka.streams.state.Stores;
+import org.apache.kafka.streams.state.WindowBytesStoreSupplier;
 
 public class DedupStoreSupplier {
 
-    public static final String STORE_NAME = "dedup-store";
+    // KV store(dedup-store)와 changelog 형식이 달라서 이름 변경
+    public static final String STORE_NAME = "dedup-window-store";
 
-    public static KeyValueBytesStoreSupplier supplier() {
-        return Stores.persistentKeyValueStore(STORE_NAME);
+    // DEDUP_MODE=bitmap
+    public static final String FCNT_STORE_NAME = "dedup-fcnt-store";
+
+    /**
+     * devEui:fCnt → 마지막 edge_ingest_time (window start = 그 시각)
+     * - retention = DEDUP_TTL → stream time 기준으로 segment 단위 삭제
+     * - changelog도 compact,delete + retention → 무한히 안 커짐
+     */
+    public static WindowBytesStoreSupplier supplier() {
+        return Stores.persistentWindowStore(
+            STORE_NAME,
+            ParserConfig.DEDUP_TTL,
+            ParserConfig.DEDUP_TTL,
+            false
+        );
+    }
+
+    /**
+     * devEui(binary) → FCntWindow(binary), device 수만큼만 커짐
+     */
+    public static KeyValueBytesStoreSupplier fcntSupplier() {
+        return Stores.persistentKeyValueStore(FCNT_STORE_NAME);
+    }
+
+    public static String storeName() {
+        return ParserConfig.DEDUP_MODE_BITMAP.equals(ParserConfig.DEDUP_MODE)
+                ? FCNT_STORE_NAME
+                : STORE_NAME;
     }
 
     private DedupStoreSupplier() {}
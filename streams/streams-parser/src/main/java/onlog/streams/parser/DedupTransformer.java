@@ -1,34 +1,81 @@
 package onlog.streams.parser;
 
+import onlog.common.model.CanonicalEvent;
 import org.apache.kafka.streams.processor.api.Processor;
 import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.streams.processor.api.Record;
 import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.WindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * devEui + fCnt 기준 중복 제거 (DEDUP_MODE)
+ *
+ * key (기본): devEui:fCnt 마다 entry (TTL 이내 같은 key → drop)
+ * - store: window store, retention = TTL (만료 entry는 segment째 삭제)
+ * - 앞단 LRU: 최근 key → 마지막 시각
+ *   - hit → RocksDB 안 읽음
+ *   - miss여도 "LRU에 없는 entry는 전부 TTL 밖"이면 RocksDB 안 읽음 (horizon)
+ *
+ * bitmap: devEui 마다 entry 1개 (FCntWindow, binary)
+ * - 최대 fCnt + 최근 64개 bitmap → message 당이 아니라 device 당 read-modify-write
+ * - counter reset (작은 fCnt로 되돌아감) / TTL 동안 안 보인 device → 새로 시작
+ */
 public class DedupTransformer
         implements Processor<String, ParsedWrapper, String, ParsedWrapper> {
 
-    private KeyValueStore<String, Long> store;
+    private static final long TTL_MS = ParserConfig.DEDUP_TTL.toMillis();
+
+    // cache miss 표시 (store 조회 필요)
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    private final boolean bitmapMode =
+            ParserConfig.DEDUP_MODE_BITMAP.equals(ParserConfig.DEDUP_MODE);
+
+    private WindowStore<String, Long> store;
+    private KeyValueStore<Bytes, byte[]> fcntStore;
     private ProcessorContext<String, ParsedWrapper> context;
 
-    // @Override
-    // public void init(ProcessorContext<String, ParsedWrapper> context) {
-    //     this.context = context;
-    //     this.store = context.getStateStore(DedupStoreSupplier.STORE_NAME);
-    // }
+    private Map<String, Long> cache;
+
+    // store에는 있을 수 있지만 cache에는 없는 entry의 최대 시각
+    // (now - TTL > horizon 이면 cache miss = 중복 아님 확정)
+    private long horizon;
 
     @Override
-    @SuppressWarnings("unchecked")
     public void init(ProcessorContext<String, ParsedWrapper> context) {
         this.context = context;
-        this.store =
-            (KeyValueStore<String, Long>)
-                context.getStateStore(DedupStoreSupplier.STORE_NAME);
+
+        if (bitmapMode) {
+            this.fcntStore = context.getStateStore(DedupStoreSupplier.FCNT_STORE_NAME);
+            return;
+        }
+
+        this.store = context.getStateStore(DedupStoreSupplier.STORE_NAME);
+
+        int maxSize = ParserConfig.DEDUP_CACHE_SIZE;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                horizon = Math.max(horizon, eldest.getValue());
+                return true;
+            }
+        };
+
+        // restore된 entry는 cache에 없음 → 지금(wall-clock) 이전 시각으로 간주
+        this.horizon = hasEntries() ? System.currentTimeMillis() : Long.MIN_VALUE;
     }
 
     @Override
     public void process(Record<String, ParsedWrapper> record) {
-        ParsedWrapper v = record.value();
+        CanonicalEvent v = record.value() == null ? null : record.value().event;
 
         if (v == null || v.devEui == null || v.fCnt == null) {
             context.forward(record);
@@ -40,25 +87,73 @@ public class DedupTransformer
             return;
         }
 
-        String key = v.devEui + ":" + v.fCnt;
         long now = v.edgeIngestTime.toEpochMilli();
-        long ttl = ParserConfig.DEDUP_TTL.toMillis();
 
-        Long last = store.get(key);
-
-        // 중복이 아니면 통과
-        if (last == null) {
-            store.put(key, now);
-            context.forward(record);
+        if (bitmapMode) {
+            processBitmap(record, v, now);
             return;
         }
 
-        // TTL 초과 → 새로운 이벤트로 간주 + 기존 key 정리
-        if (now - last > ttl) {
-            store.put(key, now);   // overwrite
+        String key = v.devEui + ":" + v.fCnt;
+
+        long last = lastSeen(key, now);
+
+        // 처음 보는 key 또는 TTL 초과 → 새로운 이벤트
+        if (last == UNKNOWN || now - last > TTL_MS) {
+            store.put(key, now, now);
+            cache.put(key, now);
             context.forward(record);
         }
 
         // TTL 이내 → duplicate → drop
     }
-}
\ No newline at end of file
+
+    private void processBitmap(Record<String, ParsedWrapper> record, CanonicalEvent v, long now) {
+        Bytes key = FCntWindow.key(v.devEui);
+
+        byte[] state = fcntStore.get(key);
+        byte[] next = FCntWindow.update(state, v.fCnt, now, TTL_MS);
+
+        // duplicate → drop
+        if (next == null) {
+            return;
+        }
+
+        if (next != state) {
+            fcntStore.put(key, next);
+        }
+        context.forward(record);
+    }
+
+    /**
+     * key의 마지막 시각 (TTL 안에 없으면 UNKNOWN)
+     */
+    private long lastSeen(String key, long now) {
+        Long cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // cache 밖 entry가 전부 TTL 밖 → store 조회 생략
+        if (now - TTL_MS > horizon) {
+            return UNKNOWN;
+        }
+
+        long last = UNKNOWN;
+        try (WindowStoreIterator<Long> it = store.fetch(key, now - TTL_MS, Long.MAX_VALUE)) {
+            while (it.hasNext()) {
+                last = Math.max(last, it.next().value);
+            }
+        }
+        if (last != UNKNOWN) {
+            cache.put(key, last);
+        }
+        return last;
+    }
+
+    private boolean hasEntries() {
+        try (var it = store.all()) {
+            return it.hasNext();
+        }
+    }
+}
@@ -1,27 +1,38 @@
 package onlog.streams.parser;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import onlog.common.serde.JsonMappers;
+import onlog.common.time.TimeNormalizer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.record.TimestampType;
 import org.apache.kafka.streams.processor.TimestampExtractor;
 
-import java.time.Instant;
-
+/**
+ * stream time = edge received_at
+ *
+ * - envelope header가 있으면 producer가 record timestamp에 received_at을 넣은 것 → 파싱 없음
+ *   (topic이 LogAppendTime이면 broker가 덮어쓰므로 CREATE_TIME일 때만)
+ * - header 없는 legacy / spool 경유 record만 JSON에서 received_at 읽음
+ */
 public class EdgeIngestTimeExtractor implements TimestampExtractor {
 
-    private static final ObjectMapper MAPPER = new ObjectMapper();
-
     @Override
     public long extract(ConsumerRecord<Object, Object> record, long partitionTime) {
 
+        if (record.timestampType() == TimestampType.CREATE_TIME
+                && record.timestamp() >= 0
+                && record.headers().lastHeader(EnvelopeHeaders.VERSION) != null) {
+            return record.timestamp();
+        }
+
         Object value = record.value();
 
         if (value instanceof String) {
             try {
-                JsonNode root = MAPPER.readTree((String) value);
+                JsonNode root = JsonMappers.MAPPER.readTree((String) value);
                 String ts = root.path("received_at").asText(null);
-                if (ts != null) {
-                    return Instant.parse(ts).toEpochMilli();
+                if (ts != null && !ts.isEmpty()) {
+                    return TimeNormalizer.parseIsoMillis(ts);
                 }
             } catch (Exception ignored) {}
         }
@@ -0,0 +1,18 @@
+package onlog.streams.parser;
+
+/**
+ * producer(KafkaSender)가 *.raw record에 붙이는 header
+ * (producers 모듈 kafka.EnvelopeHeaders와 같은 값)
+ */
+public final class EnvelopeHeaders {
+
+    public static final String VERSION = "onlog-envelope";
+
+    public static final String TENANT_ID   = "onlog-tenant-id";
+    public static final String LINE_ID     = "onlog-line-id";
+    public static final String PROCESS     = "onlog-process";
+    public static final String DEVICE_TYPE = "onlog-device-type";
+    public static final String METRIC      = "onlog-metric";
+
+    private EnvelopeHeaders() {}
+}
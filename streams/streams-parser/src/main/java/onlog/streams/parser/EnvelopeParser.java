@@ -0,0 +1,271 @@
+package onlog.streams.parser;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import onlog.common.model.CanonicalEvent;
+import onlog.common.time.TimeNormalizer;
+import onlog.common.util.SourceIdRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * *.raw envelope → ParsedWrapper (Jackson streaming parser, 1-pass)
+ *
+ * - JsonNode tree를 만들지 않고 쓰는 field만 읽어 CanonicalEvent에 바로 채움
+ *   나머지(rxInfo, txInfo, ...)는 skipChildren
+ * - envelope field 순서에 의존하지 않음 (routing은 끝까지 읽은 뒤 row마다 적용)
+ * - payload: JSON 문자열이면 그 문자열을 다시 streaming parse, object면 그대로 이어서
+ * - data → 값 필드: PayloadCodecs.resolve(device_type, metric), envelope 당 한 번
+ * - identity / sourceId: SourceIdRegistry.resolve, envelope 당 한 번 (row는 같은 인스턴스 공유)
+ *
+ * DLQ semantics (기존 tree parser와 동일)
+ * - envelope 자체가 깨진 JSON → PARSE_FAILED 1건
+ * - row 하나의 payload 문자열 / 시간 형식 오류 → 그 row만 PARSE_FAILED (raw = record 전체)
+ */
+final class EnvelopeParser {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /**
+     * row 하나 파싱 중 상태 (시간 문자열 / data는 끝에서 한 번에 변환)
+     * - data는 routing(device_type / metric)이 payload 뒤에 올 수도 있어서 finish에서 디코딩
+     */
+    private static final class Row {
+        final ParsedWrapper w = new ParsedWrapper();
+        String receivedAt;
+        String eventTime;
+        String time;
+        String data;
+        boolean hasEventTime;
+        Exception error;
+    }
+
+    static List<ParsedWrapper> parse(String raw) {
+
+        String receivedAt = null;
+        String tenantId = null;
+        String lineId = null;
+        String process = null;
+        String deviceType = null;
+        String metric = null;
+
+        Row single = new Row();
+        List<Row> rows = null;
+
+        try (JsonParser p = FACTORY.createParser(raw)) {
+
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                // object가 아닌 JSON → 필드 없음 (branch에서 DLQ)
+                return List.of(single.w);
+            }
+
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken t = p.nextToken();
+
+                switch (field) {
+                    case "received_at" -> receivedAt = text(p);
+                    case "tenant_id"   -> tenantId = text(p);
+                    case "line_id"     -> lineId = text(p);
+                    case "process"     -> process = text(p);
+                    case "device_type" -> deviceType = text(p);
+                    case "metric"      -> metric = text(p);
+                    case "payload"     -> readPayload(p, t, single);
+                    case "rows" -> {
+                        if (t == JsonToken.START_ARRAY) {
+                            rows = readRows(p);
+                        } else {
+                            p.skipChildren();
+                        }
+                    }
+                    default -> p.skipChildren();
+                }
+            }
+
+        } catch (Exception e) {
+            return List.of(failed(raw));
+        }
+
+        // 단건 envelope: received_at은 envelope 것
+        if (rows == null) {
+            single.receivedAt = receivedAt;
+            rows = List.of(single);
+        }
+
+        // codec / identity는 envelope 당 한 번 (batch row 전체가 같은 routing)
+        PayloadCodec codec = PayloadCodecs.resolve(deviceType, metric);
+        SourceIdRegistry.Identity identity =
+                SourceIdRegistry.resolve(tenantId, lineId, process, deviceType, metric);
+
+        List<ParsedWrapper> out = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            out.add(finish(row, raw, identity, codec));
+        }
+        return out;
+    }
+
+    // ==================================================
+    // Envelope
+    // ==================================================
+    private static List<Row> readRows(JsonParser p) throws Exception {
+        List<Row> rows = new ArrayList<>();
+
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            Row row = new Row();
+            rows.add(row);
+
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken t = p.nextToken();
+
+                switch (field) {
+                    case "received_at" -> row.receivedAt = text(p);
+                    case "payload"     -> readPayload(p, t, row);
+                    default            -> p.skipChildren();
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * payload = JSON 문자열 (단건 envelope) 또는 object (batch envelope)
+     */
+    private static void readPayload(JsonParser p, JsonToken t, Row row) throws Exception {
+
+        if (t == JsonToken.VALUE_STRING) {
+            // 문자열 안의 JSON 오류는 이 row만 실패
+            // (String을 만들지 않고 parser의 char buffer를 바로 parse)
+            try (JsonParser inner = FACTORY.createParser(
+                    p.getTextCharacters(), p.getTextOffset(), p.getTextLength())) {
+                if (inner.nextToken() == JsonToken.START_OBJECT) {
+                    readPayloadObject(inner, row);
+                }
+            } catch (Exception e) {
+                row.error = e;
+            }
+            return;
+        }
+
+        if (t == JsonToken.START_OBJECT) {
+            readPayloadObject(p, row);
+            return;
+        }
+
+        p.skipChildren();
+    }
+
+    // ==================================================
+    // Payload (ChirpStack uplink)
+    // ==================================================
+    private static void readPayloadObject(JsonParser p, Row row) throws Exception {
+
+        CanonicalEvent e = row.w.event;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+
+            switch (field) {
+                case "eventTime" -> {
+                    row.hasEventTime = true;
+                    row.eventTime = text(p);
+                }
+                case "time" -> row.time = text(p);
+                case "fCnt" -> {
+                    e.fCnt = p.getValueAsInt(0);
+                    p.skipChildren();
+                }
+                case "data" -> row.data = text(p);
+                case "deviceInfo" -> {
+                    if (p.currentToken() == JsonToken.START_OBJECT) {
+                        readDeviceInfo(p, e);
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    private static void readDeviceInfo(JsonParser p, CanonicalEvent e) throws Exception {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+
+            switch (field) {
+                case "devEui"     -> e.devEui = text(p);
+                case "deviceName" -> e.deviceName = text(p);
+                default           -> p.skipChildren();
+            }
+        }
+    }
+
+    // ==================================================
+    // Row 마무리 (routing 적용 / 시간 변환 / data → 값 필드)
+    // ==================================================
+    private static ParsedWrapper finish(
+            Row row, String raw,
+            SourceIdRegistry.Identity identity,
+            PayloadCodec codec
+    ) {
+        ParsedWrapper w = row.w;
+        CanonicalEvent e = w.event;
+
+        if (row.error != null) {
+            return failed(raw);
+        }
+
+        try {
+            e.edgeIngestTime = TimeNormalizer.parseIso(row.receivedAt);
+            e.eventTime = TimeNormalizer.parseIso(row.hasEventTime ? row.eventTime : row.time);
+        } catch (Exception ex) {
+            return failed(raw);
+        }
+
+        e.tenantId   = identity.tenantId;
+        e.lineId     = identity.lineId;
+        e.process    = identity.process;
+        e.deviceType = identity.deviceType;
+        e.metric     = identity.metric;
+
+        // (deviceType, metric) codec (디코딩 실패 시 값 필드 비움)
+        if (row.data != null) {
+            codec.decode(row.data, e);
+        }
+
+        e.sourceId = identity.sourceId;
+
+        return w;
+    }
+
+    private static ParsedWrapper failed(String raw) {
+        ParsedWrapper w = new ParsedWrapper();
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("error", "PARSE_FAILED");
+        meta.put("raw", raw);
+        w.meta = meta;
+        return w;
+    }
+
+    /**
+     * JsonNode.asText(null)과 같은 규칙: scalar는 문자열로, null / container는 null
+     */
+    private static String text(JsonParser p) throws Exception {
+        String v = p.getValueAsString(null);
+        p.skipChildren();
+        return v;
+    }
+
+    private EnvelopeParser() {}
+}
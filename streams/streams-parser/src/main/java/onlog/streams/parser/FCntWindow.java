@@ -0,0 +1,137 @@
+package onlog.streams.parser;
+
+import org.apache.kafka.common.utils.Bytes;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * DEDUP_MODE=bitmap: device 하나의 fCnt dedup 상태 (binary)
+ *
+ * value (20 bytes, big-endian)
+ *   [maxFCnt int32][bitmap int64][lastSeen int64]
+ *   bitmap bit i = (maxFCnt - i)를 이미 봤는지 (bit 0 = maxFCnt)
+ *
+ * key
+ *   devEui 16자리 hex → [0x01][8 bytes], 그 외 → [0x02][UTF-8]
+ */
+final class FCntWindow {
+
+    // bitmap으로 기억하는 fCnt 개수 (maxFCnt 포함)
+    static final int WINDOW = 64;
+
+    static final int SIZE = 4 + 8 + 8;
+
+    private static final byte KEY_HEX  = 0x01;
+    private static final byte KEY_UTF8 = 0x02;
+
+    /**
+     * fCnt 하나 반영
+     *
+     * @return null = duplicate (drop)
+     *         state 그대로 = 통과, 상태 변경 없음 (window보다 한참 늦은 fCnt)
+     *         새 배열 = 통과, store에 저장
+     */
+    static byte[] update(byte[] state, int fCnt, long now, long ttlMs) {
+
+        if (state == null || state.length != SIZE) {
+            return encode(fCnt, 1L, now);
+        }
+
+        int max = getInt(state, 0);
+        long bitmap = getLong(state, 4);
+        long lastSeen = getLong(state, 12);
+
+        // TTL 동안 안 보인 device → 처음부터
+        if (now - lastSeen > ttlMs) {
+            return encode(fCnt, 1L, now);
+        }
+
+        long seen = Math.max(lastSeen, now);
+        long ahead = (long) fCnt - max;
+
+        // 새 최대 fCnt → window 이동
+        if (ahead > 0) {
+            long shifted = ahead >= WINDOW ? 0L : bitmap << ahead;
+            return encode(fCnt, shifted | 1L, seen);
+        }
+
+        // window 안 (재전송 / 순서 뒤바뀜)
+        long behind = -ahead;
+        if (behind < WINDOW) {
+            long bit = 1L << behind;
+            if ((bitmap & bit) != 0) {
+                return null;
+            }
+            return encode(max, bitmap | bit, seen);
+        }
+
+        // window 밖인데 작은 값 → counter reset (rejoin / 재부팅)
+        if (fCnt < WINDOW) {
+            return encode(fCnt, 1L, now);
+        }
+
+        // window보다 한참 늦은 fCnt → 판단 불가, 통과만
+        return state;
+    }
+
+    static Bytes key(String devEui) {
+        if (devEui.length() == 16 && isHex(devEui)) {
+            byte[] k = new byte[9];
+            k[0] = KEY_HEX;
+            for (int i = 0; i < 8; i++) {
+                k[i + 1] = (byte) ((Character.digit(devEui.charAt(i * 2), 16) << 4)
+                                 |  Character.digit(devEui.charAt(i * 2 + 1), 16));
+            }
+            return Bytes.wrap(k);
+        }
+
+        byte[] utf8 = devEui.getBytes(StandardCharsets.UTF_8);
+        byte[] k = new byte[utf8.length + 1];
+        k[0] = KEY_UTF8;
+        System.arraycopy(utf8, 0, k, 1, utf8.length);
+        return Bytes.wrap(k);
+    }
+
+    // ==================================================
+    // binary helpers
+    // ==================================================
+    private static byte[] encode(int max, long bitmap, long lastSeen) {
+        byte[] b = new byte[SIZE];
+        putInt(b, 0, max);
+        putLong(b, 4, bitmap);
+        putLong(b, 12, lastSeen);
+        return b;
+    }
+
+    private static boolean isHex(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (Character.digit(s.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int getInt(byte[] b, int off) {
+        return ((b[off] & 0xFF) << 24) | ((b[off + 1] & 0xFF) << 16)
+             | ((b[off + 2] & 0xFF) << 8) | (b[off + 3] & 0xFF);
+    }
+
+    private static long getLong(byte[] b, int off) {
+        return ((long) getInt(b, off) << 32) | (getInt(b, off + 4) & 0xFFFFFFFFL);
+    }
+
+    private static void putInt(byte[] b, int off, int v) {
+        b[off]     = (byte) (v >>> 24);
+        b[off + 1] = (byte) (v >>> 16);
+        b[off + 2] = (byte) (v >>> 8);
+        b[off + 3] = (byte) v;
+    }
+
+    private static void putLong(byte[] b, int off, long v) {
+        putInt(b, off, (int) (v >>> 32));
+        putInt(b, off + 4, (int) v);
+    }
+
+    private FCntWindow() {}
+}
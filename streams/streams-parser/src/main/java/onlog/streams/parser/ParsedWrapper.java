@@ -1,39 +1,19 @@
 package onlog.streams.parser;
 
-import java.time.Instant;
+import onlog.common.model.CanonicalEvent;
+
 import java.util.Map;
 
 /**
  * Internal intermediate structure
  * Used only inside streams-parser
+ *
+ * event는 parser가 바로 채운 출력 객체 (정상 branch에서 복사 없이 그대로 전송)
+ * meta != null && meta.error → DLQ
  */
 public class ParsedWrapper {
 
-    public Instant eventTime;
-    public Instant edgeIngestTime;
-
-    public String tenantId;
-    public String lineId;
-    public String process;
-
-    public String devEui;
-    public String deviceType;
-    public String metric;
-    public String deviceName;
-
-    // =========================
-    // Decoded values
-    // =========================
-    public Double valueNum;
-    public Boolean valueBool;
-
-    public Integer batteryMv;
-    public String batteryStatus;
-
-    public Double temperature;
-    public Double humidity;
-
-    public Integer fCnt;
+    public CanonicalEvent event = new CanonicalEvent();
 
     public Map<String, Object> meta;
 }
@@ -12,8 +12,33 @@ public class ParserConfig {
 
     public static final String OUTPUT_TOPIC  = "sensor.parsed";
 
-    // Dedup TTL (wall-clock, edge_ingest_time 기준)
+    // Dedup TTL (wall-clock, edge_ingest_time 기준) = dedup store retention
     public static final Duration DEDUP_TTL = Duration.ofMinutes(30);
 
+    // dedup store 앞 in-memory LRU (task 당 key 수)
+    public static final int DEDUP_CACHE_SIZE = getenvInt("DEDUP_CACHE_SIZE", 50_000);
+
+    // Dedup 방식
+    // - key    : devEui:fCnt 마다 entry 1개 (window store, TTL 만료)
+    // - bitmap : devEui 마다 entry 1개 (최대 fCnt + 최근 64개 bitmap, binary)
+    public static final String DEDUP_MODE_KEY    = "key";
+    public static final String DEDUP_MODE_BITMAP = "bitmap";
+    public static final String DEDUP_MODE = getenv("DEDUP_MODE", DEDUP_MODE_KEY);
+
+    // WEIGHT / STATE codec (synthetic generator layout) 등록 여부
+    // - 실제 device spec 아님 → 기본 false (battery 필드만 채움)
+    public static final boolean SYNTHETIC_CODECS =
+            Boolean.parseBoolean(getenv("SYNTHETIC_CODECS", "false"));
+
+    private static String getenv(String key, String def) {
+        String v = System.getenv(key);
+        return v == null || v.isBlank() ? def : v.trim();
+    }
+
+    private static int getenvInt(String key, int def) {
+        String v = System.getenv(key);
+        return v == null || v.isBlank() ? def : Integer.parseInt(v.trim());
+    }
+
     private ParserConfig() {}
 }
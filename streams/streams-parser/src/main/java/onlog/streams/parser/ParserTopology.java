@@ -1,37 +1,39 @@
 package onlog.streams.parser;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import onlog.common.model.CanonicalEvent;
 import onlog.common.serde.CanonicalEventSerde;
 import onlog.common.serde.JsonSerde;
-import onlog.common.time.TimeNormalizer;
-import onlog.common.util.SourceIdUtil;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.kstream.*;
 import org.apache.kafka.streams.state.Stores;
 
 import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
 
 public class ParserTopology {
 
-    private static final ObjectMapper MAPPER = new ObjectMapper();
-
     public static void build(StreamsBuilder builder) {
 
         // =========================
-        // Dedup StateStore
+        // Dedup StateStore (DEDUP_MODE)
         // =========================
-        builder.addStateStore(
-            Stores.keyValueStoreBuilder(
-                DedupStoreSupplier.supplier(),
-                Serdes.String(),
-                Serdes.Long()
-            )
-        );
+        if (ParserConfig.DEDUP_MODE_BITMAP.equals(ParserConfig.DEDUP_MODE)) {
+            // device 당 read-modify-write → record cache로 commit 사이 write 합침
+            builder.addStateStore(
+                Stores.keyValueStoreBuilder(
+                    DedupStoreSupplier.fcntSupplier(),
+                    Serdes.Bytes(),
+                    Serdes.ByteArray()
+                ).withCachingEnabled()
+            );
+        } else {
+            builder.addStateStore(
+                Stores.windowStoreBuilder(
+                    DedupStoreSupplier.supplier(),
+                    Serdes.String(),
+                    Serdes.Long()
+                )
+            );
+        }
 
         KStream<String, String> env =
                 builder.stream(ParserConfig.TOPIC_ENV,
@@ -45,10 +47,11 @@ public class ParserTopology {
                 builder.stream(ParserConfig.TOPIC_MACHINE,
                         Consumed.with(Serdes.String(), Serdes.String()));
 
+        // batch envelope는 여기서 row 단위로 풀림 (dedup 이전)
         KStream<String, ParsedWrapper> parsed =
                 env.merge(scale)
                    .merge(machine)
-                   .mapValues(ParserTopology::parseRaw);
+                   .flatMapValues(EnvelopeParser::parse);
 
         // =========================
         // Dedup
@@ -57,7 +60,7 @@ public class ParserTopology {
             parsed.process(
                 DedupTransformer::new,
                 Named.as("dedup"),
-                DedupStoreSupplier.STORE_NAME
+                DedupStoreSupplier.storeName()
             );
             
         // =========================
@@ -69,9 +72,9 @@ public class ParserTopology {
                 (k, v) ->
                     v == null
                     || v.meta != null && v.meta.containsKey("error")
-                    || v.edgeIngestTime == null
-                    || v.devEui == null
-                    || v.metric == null,
+                    || v.event.edgeIngestTime == null
+                    || v.event.devEui == null
+                    || v.event.metric == null,
 
                 // 정상
                 (k, v) -> true
@@ -100,141 +103,13 @@ public class ParserTopology {
             );
 
         // =========================
-        // 정상 Canonical flow
+        // 정상 Canonical flow (parser가 채운 event 그대로)
         // =========================
         branches[1]
-            .mapValues(ParserTopology::toCanonical)
+            .mapValues(v -> v.event)
             .to(
                 ParserConfig.OUTPUT_TOPIC,
                 Produced.with(Serdes.String(), new CanonicalEventSerde())
             );
     }
-
-    private static ParsedWrapper parseRaw(String raw) {
-
-        ParsedWrapper w = new ParsedWrapper();
-
-        try {
-            JsonNode root = MAPPER.readTree(raw);
-
-            // -------------------------
-            // edge_ingest_time
-            // -------------------------
-            w.edgeIngestTime =
-                TimeNormalizer.parseIso(
-                    root.path("received_at").asText(null)
-                );
-
-            // -------------------------
-            // Routing meta
-            // -------------------------
-            w.tenantId   = root.path("tenant_id").asText(null);
-            w.lineId     = root.path("line_id").asText(null);
-            w.process    = root.path("process").asText(null);
-            w.deviceType = root.path("device_type").asText(null);
-            w.metric     = root.path("metric").asText(null);
-
-            // -------------------------
-            // Payload
-            // -------------------------
-            JsonNode payload = MAPPER.readTree(
-                root.path("payload").asText()
-            );
-
-
-            // -------------------------
-            // event_time (source time)
-            // -------------------------
-            String eventTimeStr =
-                payload.has("eventTime")
-                    ? payload.path("eventTime").asText(null)
-                    : payload.path("time").asText(null);
-
-            w.eventTime = TimeNormalizer.parseIso(eventTimeStr);
-
-            // -------------------------
-            // Device info
-            // -------------------------
-            JsonNode deviceInfo = payload.path("deviceInfo");
-
-            w.devEui      = deviceInfo.path("devEui").asText(null);
-            w.deviceName  = deviceInfo.path("deviceName").asText(null);
-
-            w.fCnt = payload.has("fCnt") ? payload.get("fCnt").asInt() : null;
-
-            // =========================
-            // Base64 payload decode
-            // =========================
-            if (payload.has("data")) {
-
-                BatteryPayloadDecoder
-                    .decode(payload.get("data").asText())
-                    .ifPresent(d -> {
-
-                        w.batteryMv     = d.batteryMv();
-                        w.batteryStatus = d.batteryStatus();
-                        w.temperature   = d.temperature();
-                        w.humidity      = d.humidity();
-
-                        // metric routing
-                        if (w.metric != null) {
-                            switch (w.metric) {
-                                case "TEMP" ->
-                                    w.valueNum = w.temperature;
-                                case "HUMIDITY" ->
-                                    w.valueNum = w.humidity;
-                                case "BATTERY_MV" ->
-                                    w.valueNum = (double) w.batteryMv;
-                            }
-                        }
-                    });
-            }
-
-            return w;
-
-        } catch (Exception e) {
-            Map<String, Object> meta = new HashMap<>();
-            meta.put("error", "PARSE_FAILED");
-            meta.put("raw", raw);
-            w.meta = meta;
-            return w;
-        }
-    }
-
-    private static CanonicalEvent toCanonical(ParsedWrapper w) {
-
-        CanonicalEvent e = new CanonicalEvent();
-
-        e.eventTime      = w.eventTime;
-        e.edgeIngestTime = w.edgeIngestTime;
-
-        e.tenantId = w.tenantId;
-        e.lineId   = w.lineId;
-        e.process  = w.process;
-
-        e.devEui     = w.devEui;
-        e.deviceType = w.deviceType;
-        e.metric     = w.metric;
-        e.deviceName = w.deviceName;
-
-        e.valueNum  = w.valueNum;
-        e.valueBool = w.valueBool;
-
-        e.fCnt = w.fCnt;
-
-        e.batteryMv     = w.batteryMv;
-        e.batteryStatus = w.batteryStatus;
-        e.temperature   = w.temperature;
-        e.humidity      = w.humidity;
-
-        e.sourceId = SourceIdUtil.build(
-                w.tenantId,
-                w.lineId,
-                w.process,
-                w.deviceType,
-                w.metric
-        );
-
-        return e;
-    }
 }
@@ -0,0 +1,18 @@
+package onlog.streams.parser;
+
+import onlog.common.model.CanonicalEvent;
+
+/**
+ * payload data(base64) → CanonicalEvent 값 필드 (valueNum / valueBool / 부가 필드)
+ *
+ * - (deviceType, metric)마다 PayloadCodecs가 한 번 resolve 해서 재사용
+ * - 구현은 상태 없이, byte[] / 중간 객체 없이 작성할 것
+ */
+@FunctionalInterface
+public interface PayloadCodec {
+
+    /**
+     * @return false = 디코딩 실패 (e는 건드리지 않음)
+     */
+    boolean decode(String data, CanonicalEvent e);
+}
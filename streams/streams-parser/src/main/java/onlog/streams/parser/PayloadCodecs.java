@@ -0,0 +1,146 @@
+package onlog.streams.parser;
+
+import onlog.common.model.CanonicalEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * (deviceType, metric) → PayloadCodec registry
+ *
+ * - 등록 우선순위: (deviceType, metric) → metric만 → BATTERY (기존 동작: battery 필드만)
+ * - resolve 결과는 (deviceType, metric) 쌍마다 cache → envelope 당 map 조회 2번, row 당 0번
+ * - 새 센서 타입 = register() 한 줄 (parser 루프 수정 없음)
+ */
+public final class PayloadCodecs {
+
+    // deviceType 상관없이 metric으로 등록 (key = "")
+    private static final String ANY = "";
+
+    // 등록 (deviceType → metric → codec)
+    private static final Map<String, Map<String, PayloadCodec>> REGISTERED = new ConcurrentHashMap<>();
+
+    // resolve cache (deviceType → metric → codec), key 문자열을 새로 만들지 않도록 2단
+    private static final Map<String, Map<String, PayloadCodec>> RESOLVED = new ConcurrentHashMap<>();
+
+    // ==================================================
+    // 기본 codec
+    // ==================================================
+
+    // battery 부가 필드 채우기 (non-capturing → 상수)
+    private static final BatteryPayloadDecoder.Sink<CanonicalEvent> BATTERY_FIELDS =
+            (e, mv, status, temperature, humidity) -> {
+                e.batteryMv     = mv;
+                e.batteryStatus = status;
+                e.temperature   = temperature;
+                e.humidity      = humidity;
+            };
+
+    /**
+     * ENV 센서 layout, valueNum 없음 (등록 안 된 조합의 기본값)
+     */
+    public static final PayloadCodec BATTERY =
+            (data, e) -> BatteryPayloadDecoder.decode(data, e, BATTERY_FIELDS);
+
+    /**
+     * ENV: [status(2bit)|battery mV(14bit)] [temp int16 /100] [humidity uint16 /10]
+     */
+    public static final PayloadCodec ENV_TEMP = (data, e) -> {
+        if (!BATTERY.decode(data, e)) return false;
+        e.valueNum = e.temperature;
+        return true;
+    };
+
+    public static final PayloadCodec ENV_HUMIDITY = (data, e) -> {
+        if (!BATTERY.decode(data, e)) return false;
+        e.valueNum = e.humidity;
+        return true;
+    };
+
+    public static final PayloadCodec ENV_BATTERY_MV = (data, e) -> {
+        if (!BATTERY.decode(data, e)) return false;
+        e.valueNum = (double) e.batteryMv;
+        return true;
+    };
+
+    // ==================================================
+    // synthetic generator layout (device spec 아님, SYNTHETIC_CODECS=true 일 때만 등록)
+    // ==================================================
+
+    /**
+     * SCALE (synthetic): weight int32 (0.01 g) → valueNum (g)
+     */
+    public static final PayloadCodec SCALE_WEIGHT = (data, e) -> {
+        if (Base64Bytes.decodedLength(data) < 4) return false;
+        int weight = (Base64Bytes.unit(data, 0) << 8) | (Base64Bytes.unit(data, 1) >>> 16);
+        e.valueNum = weight / 100.0;
+        return true;
+    };
+
+    /**
+     * MACHINE (synthetic): state 1 byte (0 IDLE / 1 RUNNING / 2 ERROR) → valueNum, valueBool = RUNNING
+     */
+    public static final PayloadCodec MACHINE_STATE = (data, e) -> {
+        if (Base64Bytes.decodedLength(data) < 1) return false;
+        int state = Base64Bytes.unit(data, 0) >>> 16;
+        e.valueNum = (double) state;
+        e.valueBool = state == 1;
+        return true;
+    };
+
+    static {
+        register(null, "TEMP", ENV_TEMP);
+        register(null, "HUMIDITY", ENV_HUMIDITY);
+        register(null, "BATTERY_MV", ENV_BATTERY_MV);
+
+        // 실제 scale / machine payload spec 전까지 opt-in
+        // (WEIGHT valueNum → KPI production / yield 집계에 그대로 들어감)
+        if (ParserConfig.SYNTHETIC_CODECS) {
+            register(null, "WEIGHT", SCALE_WEIGHT);
+            register(null, "STATE", MACHINE_STATE);
+        }
+    }
+
+    // ==================================================
+    // Registry
+    // ==================================================
+
+    /**
+     * @param deviceType null = 모든 deviceType
+     */
+    public static void register(String deviceType, String metric, PayloadCodec codec) {
+        REGISTERED
+            .computeIfAbsent(key(deviceType), k -> new ConcurrentHashMap<>())
+            .put(key(metric), codec);
+
+        // 이미 resolve 된 조합도 다시 계산
+        RESOLVED.clear();
+    }
+
+    public static PayloadCodec resolve(String deviceType, String metric) {
+        return RESOLVED
+            .computeIfAbsent(key(deviceType), k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(key(metric), m -> lookup(key(deviceType), m));
+    }
+
+    private static PayloadCodec lookup(String deviceType, String metric) {
+        Map<String, PayloadCodec> byType = REGISTERED.get(deviceType);
+        if (byType != null && byType.containsKey(metric)) {
+            return byType.get(metric);
+        }
+
+        Map<String, PayloadCodec> any = REGISTERED.get(ANY);
+        if (any != null && any.containsKey(metric)) {
+            return any.get(metric);
+        }
+
+        return BATTERY;
+    }
+
+    // ConcurrentHashMap은 null key 불가
+    private static String key(String s) {
+        return s == null ? ANY : s;
+    }
+
+    private PayloadCodecs() {}
+}
@@ -1,5 +1,6 @@
 package onlog.streams.parser;
 
+import onlog.common.streams.BoundedRocksDBConfigSetter;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.StreamsConfig;
@@ -64,6 +65,14 @@ public class StreamsParserApp {
             EdgeIngestTimeExtractor.class
         );
 
+        // =========================
+        // State store (RocksDB, 프로세스 전체 메모리 상한)
+        // =========================
+        props.put(
+            StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG,
+            BoundedRocksDBConfigSetter.class
+        );
+
         // =========================
         // Build topology
         // =========================
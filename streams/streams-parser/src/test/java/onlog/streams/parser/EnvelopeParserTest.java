@@ -0,0 +1,50 @@
+package onlog.streams.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EnvelopeParserTest {
+
+    private static String payload(int fCnt) {
+        return "{\"eventTime\":\"2026-01-01T00:00:0" + fCnt + "Z\",\"fCnt\":" + fCnt
+                + ",\"deviceInfo\":{\"devEui\":\"a840000000000001\"}}";
+    }
+
+    /**
+     * producer EnvelopeEncoder.encodeBatch는 문법이 깨진 payload를 문자열로 넣음
+     * → 그 row만 PARSE_FAILED, 같은 batch의 나머지 row는 정상
+     */
+    @Test
+    void truncatedPayloadInBatchFailsOnlyThatRow() {
+        String truncated = payload(1).substring(0, 40);
+
+        String raw = "{\"received_at\":\"2026-01-01T00:00:00Z\",\"tenant_id\":\"t1\",\"line_id\":\"L1\","
+                + "\"process\":\"P1\",\"device_type\":\"ENV_SENSOR\",\"metric\":\"TEMP\",\"rows\":["
+                + "{\"received_at\":\"2026-01-01T00:00:00Z\",\"payload\":" + payload(0) + "},"
+                + "{\"received_at\":\"2026-01-01T00:00:01Z\",\"payload\":\""
+                + truncated.replace("\"", "\\\"") + "\"},"
+                + "{\"received_at\":\"2026-01-01T00:00:02Z\",\"payload\":" + payload(2) + "}"
+                + "]}";
+
+        List<ParsedWrapper> out = EnvelopeParser.parse(raw);
+
+        assertEquals(3, out.size());
+
+        assertNull(out.get(0).meta);
+        assertEquals(0, out.get(0).event.fCnt);
+        assertEquals("a840000000000001", out.get(0).event.devEui);
+        assertEquals(Instant.parse("2026-01-01T00:00:00Z"), out.get(0).event.edgeIngestTime);
+
+        assertEquals("PARSE_FAILED", out.get(1).meta.get("error"));
+        assertEquals(raw, out.get(1).meta.get("raw"));
+
+        assertNull(out.get(2).meta);
+        assertEquals(2, out.get(2).event.fCnt);
+        assertEquals(Instant.parse("2026-01-01T00:00:02Z"), out.get(2).event.eventTime);
+    }
+}